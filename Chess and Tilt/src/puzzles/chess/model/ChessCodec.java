@@ -0,0 +1,64 @@
+package puzzles.chess.model;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.LongStateCodec;
+
+/**
+ * Packs a ChessConfig into a long with its square-subset encoding: a 3-bit piece code for each
+ * square occupied on the board as read. Fits as long as the board was read with at most 21 pieces,
+ * which covers every board in data/chess. A codec packs the positions of one board, the one its
+ * start config was read from.
+ */
+public class ChessCodec implements LongStateCodec {
+
+    /** Fields */
+    // A config of the board being packed, which packed states are unpacked onto
+    private final ChessConfig board;
+
+
+    /**
+     * Constructor for the positions of one board.
+     *
+     * @param board A config of the board, such as the one read from its file.
+     */
+    public ChessCodec(ChessConfig board) {
+        this.board = board;
+    }
+
+    /**
+     * The start fits if it is on this codec's board and the board was read with no more pieces than one
+     * long can encode. A board of 21 unknown letters would pack to Long.MAX_VALUE, which the Solver cannot
+     * store, so it does not fit.
+     *
+     * @param start The starting config.
+     * @return true if every config reachable from the start can be packed, false otherwise.
+     */
+    @Override
+    public boolean fits(Configuration start) {
+        return start instanceof ChessConfig && this.board.sameBoard((ChessConfig) start)
+                && this.board.getSubsetSize() <= ChessConfig.SQUARES_PER_WORD
+                && ((ChessConfig) start).encode() != Long.MAX_VALUE;
+    }
+
+    /**
+     * Packs the pieces of a config into a long.
+     *
+     * @param config The config to pack.
+     * @return The packed pieces.
+     */
+    @Override
+    public long encode(Configuration config) {
+        return ((ChessConfig) config).encode();
+    }
+
+    /**
+     * Unpacks the pieces from a long into a new config of this codec's board.
+     *
+     * @param state The packed pieces.
+     * @return The config holding those pieces.
+     */
+    @Override
+    public Configuration decode(long state) {
+        return this.board.decode(state);
+    }
+}
@@ -1,73 +1,279 @@
 package puzzles.chess.model;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.RankedConfiguration;
 
 import java.io.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
  * Configuration for a solitaire chess puzzle
  *
+ * The board is kept as bitboards: one mask of the occupied squares plus one mask per piece type,
+ * each split over two longs, so boards of up to 128 squares (9x9 and beyond) fit. Square numbers
+ * go row by row, so square = row * cols + col.
+ *
+ * A piece only ever moves onto a square that is already occupied, so every position reachable from a board
+ * only uses the squares occupied when it was read. encode packs a position by just those squares, giving
+ * each a 3-bit piece code (its type number, 0 for empty), 21 squares to a long.
+ *
+ * The same fact makes captures cheap to find. When a board is read, each piece type on each of those
+ * squares gets the list of those squares it could capture on, in move order, along with a mask of the
+ * squares between that must be empty for the capture. Generating moves is then a bit test and a blocker
+ * check per listed square, with no walking along rays.
+ *
+ * The size, the subset and the capture tables belong to the board as read, a Board built once by the
+ * file constructor and shared by every config reached from it, so configs of different boards never mix.
+ *
  * @author Aidan Sanderson
  */
-public class ChessConfig implements Configuration {
+public class ChessConfig implements RankedConfiguration {
+
+    /** Letters of the piece types, by type number (type 0 is the occupancy mask, the last type is any other letter) */
+    private static final String[] LETTERS = { ".", "P", "B", "R", "N", "K", "Q" };
+
+    /** Type number of the occupancy mask */
+    private static final int OCCUPIED = 0;
+
+    /** Type numbers of the pieces */
+    private static final int PAWN = 1;
+    private static final int BISHOP = 2;
+    private static final int ROOK = 3;
+    private static final int KNIGHT = 4;
+    private static final int KING = 5;
+    private static final int QUEEN = 6;
+
+    /** Type number of a letter that is not a known piece; such pieces can be captured but never move */
+    private static final int OTHER = 7;
 
-    /** The grid representing the chess board and the pieces on it */
-    private String[][] grid;
+    /** Number of masks, counting the occupancy mask */
+    private static final int TYPES = 8;
 
-    /** Number of rows */
-    private static  int ROWS;
+    /** Largest number of squares two longs can hold */
+    private static final int MAX_SQUARES = 2 * Long.SIZE;
 
-    /** Number of columns */
-    private static  int COLS;
+    /** Bits in the piece code of an encoded square */
+    private static final int CODE_BITS = 3;
 
-    /** total number of configurations generated */
-    private static List<Configuration> totalConfigs;
+    /** Squares encoded in each long */
+    public static final int SQUARES_PER_WORD = Long.SIZE / CODE_BITS;
 
-    /** unique number of configurations generated */
-    private static Set<Configuration> uniqueConfigs;
+    /** Ray directions as row and column steps, in the order the moves are generated (bishop rays, then rook rays) */
+    private static final int[] RAY_ROW_STEPS = { -1, -1, 1, 1, -1, 1, 0, 0 };
+    private static final int[] RAY_COL_STEPS = { -1, 1, -1, 1, 0, 0, -1, 1 };
 
-    /** configs that can be created from the current config */
-    private final Collection<Configuration> neighbors;
+    /** Knight jumps as row and column steps, in the order the moves are generated */
+    private static final int[] KNIGHT_ROW_STEPS = { -2, -2, 2, 2, -1, 1, -1, 1 };
+    private static final int[] KNIGHT_COL_STEPS = { -1, 1, -1, 1, -2, -2, 2, 2 };
+
+    /** King steps as row and column steps, in the order the moves are generated */
+    private static final int[] KING_ROW_STEPS = { -1, 1, 0, 0, -1, -1, 1, 1 };
+    private static final int[] KING_COL_STEPS = { 0, 0, -1, 1, -1, 1, -1, 1 };
+
+    /** Pawn captures as row and column steps, in the order the moves are generated */
+    private static final int[] PAWN_ROW_STEPS = { -1, -1 };
+    private static final int[] PAWN_COL_STEPS = { -1, 1 };
+
+    /**
+     * What every config reached from one board read from a file shares: its size, its letters, the squares
+     * occupied when it was read and the captures between them.
+     */
+    private static final class Board {
+
+        /** Number of rows */
+        private final int rows;
+
+        /** Number of columns */
+        private final int cols;
+
+        /** Letter read from the file for each square, used to print pieces of type OTHER (which never move) */
+        private final String[] startLetters;
+
+        /** Squares occupied on the board as read, in square order; every reachable position only uses these */
+        private final int[] subsetSquares;
+
+        /** Index in subsetSquares of each square, or -1 for a square that was empty as read */
+        private final int[] subsetIndex;
+
+        /** Subset squares each type of piece on each subset square could capture on, in move order, indexed by type then subset index */
+        private final int[][][] targets;
+
+        /** Mask of the squares that must be empty for each of those captures, two longs per target (low then high), aligned with targets */
+        private final long[][][] between;
+
+        /**
+         * Builds the square subset and the capture tables for a board just read.
+         *
+         * @param rows number of rows.
+         * @param cols number of columns.
+         * @param startLetters letter read for each square.
+         * @param bits the masks of the board as read.
+         */
+        private Board(int rows, int cols, String[] startLetters, long[] bits) {
+            this.rows = rows;
+            this.cols = cols;
+            this.startLetters = startLetters;
+            this.subsetSquares = squares(bits);
+            this.subsetIndex = new int[rows * cols];
+            Arrays.fill(this.subsetIndex, -1);
+            for (int i = 0; i < this.subsetSquares.length; i++) {
+                this.subsetIndex[this.subsetSquares[i]] = i;
+            }
+
+            this.targets = new int[TYPES][this.subsetSquares.length][];
+            this.between = new long[TYPES][this.subsetSquares.length][];
+            for (int i = 0; i < this.subsetSquares.length; i++) {
+                int row = this.subsetSquares[i] / cols;
+                int col = this.subsetSquares[i] % cols;
+                for (int type = PAWN; type <= QUEEN; type++) {
+                    List<Integer> targets = new ArrayList<>();
+                    List<Long> between = new ArrayList<>();
+                    switch (type) {
+                        case PAWN:
+                            lines(row, col, PAWN_ROW_STEPS, PAWN_COL_STEPS, 0, PAWN_ROW_STEPS.length, false, targets, between);
+                            break;
+                        case BISHOP:
+                            lines(row, col, RAY_ROW_STEPS, RAY_COL_STEPS, 0, 4, true, targets, between);
+                            break;
+                        case ROOK:
+                            lines(row, col, RAY_ROW_STEPS, RAY_COL_STEPS, 4, 8, true, targets, between);
+                            break;
+                        case KNIGHT:
+                            lines(row, col, KNIGHT_ROW_STEPS, KNIGHT_COL_STEPS, 0, KNIGHT_ROW_STEPS.length, false, targets, between);
+                            break;
+                        case KING:
+                            lines(row, col, KING_ROW_STEPS, KING_COL_STEPS, 0, KING_ROW_STEPS.length, false, targets, between);
+                            break;
+                        default:
+                            lines(row, col, RAY_ROW_STEPS, RAY_COL_STEPS, 0, 8, true, targets, between);
+                            break;
+                    }
+                    this.targets[type][i] = targets.stream().mapToInt(Integer::intValue).toArray();
+                    this.between[type][i] = between.stream().mapToLong(Long::longValue).toArray();
+                }
+            }
+        }
+
+        /**
+         * Adds the subset squares along some lines from a square to a capture list, in line order then distance.
+         * A line is one step for a jumping piece, or every step to the edge of the board for a sliding one.
+         *
+         * @param row row to step from.
+         * @param col column to step from.
+         * @param rowSteps row offset of each line.
+         * @param colSteps column offset of each line.
+         * @param first first line to follow.
+         * @param last one past the last line to follow.
+         * @param slides true to keep stepping along each line, false for a single step.
+         * @param targets where to add the subset squares reached.
+         * @param between where to add the two longs of each one's mask of squares in between.
+         */
+        private void lines(int row, int col, int[] rowSteps, int[] colSteps, int first, int last, boolean slides,
+                           List<Integer> targets, List<Long> between) {
+            for (int line = first; line < last; line++) {
+                long[] passed = new long[2];
+                int curRow = row + rowSteps[line];
+                int curCol = col + colSteps[line];
+                while (onBoard(curRow, curCol)) {
+                    int square = curRow * this.cols + curCol;
+                    if (this.subsetIndex[square] >= 0) {
+                        targets.add(square);
+                        between.add(passed[0]);
+                        between.add(passed[1]);
+                    }
+                    if (!slides) {
+                        break;
+                    }
+                    passed[square >>> 6] |= 1L << square;
+                    curRow += rowSteps[line];
+                    curCol += colSteps[line];
+                }
+            }
+        }
+
+        /**
+         * Is a square on the board?
+         *
+         * @param row row of the square.
+         * @param col column of the square.
+         * @return true if the square is on the board, false otherwise.
+         */
+        private boolean onBoard(int row, int col) {
+            return row >= 0 && row < this.rows && col >= 0 && col < this.cols;
+        }
+
+        /**
+         * Was another board read with the same size and letters, such as the same file read again?
+         *
+         * @param other the other board.
+         * @return true if both boards were read the same, false otherwise.
+         */
+        private boolean sameAs(Board other) {
+            return this == other || this.rows == other.rows && this.cols == other.cols
+                    && Arrays.equals(this.startLetters, other.startLetters);
+        }
+    }
+
+    /** Board as read that this config was reached from */
+    private final Board board;
+
+    /** Masks of the board, two longs per type (low squares then high squares), indexed by type * 2 + half */
+    private final long[] bits;
 
     /**
      * Initial constructor for the first config using a file to read in the chess board form.
      *
      * @param file The file to read the chess board from.
-     * @throws IOException File given can not be read from.
+     * @throws IOException File given can not be read from, or its board has more than 128 squares.
      */
     public ChessConfig(File file) throws IOException {
         int lineNum = 0;
         int row = 0;
-        this.grid = null;
-        this.neighbors = new ArrayList<>();
-        totalConfigs = new ArrayList<>();
-        uniqueConfigs = new HashSet<>();
-        ROWS = 0;
-        COLS = 0;
-            try {
-                BufferedReader reader = new BufferedReader(new FileReader(file));
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (lineNum == 0) {
-                        String[] dimesntions = line.split(" ");
-                        ROWS = Integer.parseInt(dimesntions[0]);
-                        COLS = Integer.parseInt(dimesntions[1]);
-                        this.grid = new String[ROWS][COLS];
-                        lineNum++;
-                    } else {
-                        String[] parts = line.split(" ");
-                        for (int col = 0; col < COLS; col++) {
-                            this.grid[row][col] = parts[col];
+        long[] bits = new long[TYPES * 2];
+        int rows = 0;
+        int cols = 0;
+        String[] startLetters = new String[0];
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (lineNum == 0) {
+                    String[] dimensions = line.split(" ");
+                    rows = Integer.parseInt(dimensions[0]);
+                    cols = Integer.parseInt(dimensions[1]);
+                    if (rows * cols > MAX_SQUARES) {
+                        throw new IOException("Board has " + rows * cols + " squares, more than " + MAX_SQUARES);
+                    }
+                    startLetters = new String[rows * cols];
+                    lineNum++;
+                } else {
+                    String[] parts = line.split(" ");
+                    for (int col = 0; col < cols; col++) {
+                        int square = row * cols + col;
+                        startLetters[square] = parts[col];
+                        if (!parts[col].equals(".")) {
+                            int type = Arrays.asList(LETTERS).indexOf(parts[col]);
+                            set(bits, OCCUPIED, square);
+                            set(bits, type > OCCUPIED ? type : OTHER, square);
                         }
-                        row++;
                     }
+                    row++;
                 }
-            } catch (IOException e) {
-                throw new IOException();
             }
-            totalConfigs.add(this);
-            uniqueConfigs.add(this);
+        }
+        this.board = new Board(rows, cols, startLetters, bits);
+        this.bits = bits;
+    }
+
+    /**
+     * Constructor for a config with the given masks.
+     *
+     * @param board the board as read that the config was reached from.
+     * @param bits the masks of the board.
+     */
+    private ChessConfig(Board board, long[] bits) {
+        this.board = board;
+        this.bits = bits;
     }
 
     /**
@@ -80,58 +286,140 @@ public class ChessConfig implements Configuration {
      * @param colTo column for piece to move to.
      */
     public ChessConfig(ChessConfig config, int rowFrom, int colFrom, int rowTo, int colTo) {
-        this.grid = new String[ROWS][COLS];
-        String[][] configGrid = config.getGrid();
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
-                this.grid[row][col] = configGrid[row][col];
-            }
+        this(config, rowFrom * config.board.cols + colFrom, rowTo * config.board.cols + colTo);
+    }
+
+    /**
+     * Constructor to create a neighbor config by square numbers.
+     *
+     * @param config The config to make a neighbor for.
+     * @param from square for piece to move from.
+     * @param to square for piece to move to.
+     */
+    private ChessConfig(ChessConfig config, int from, int to) {
+        this.board = config.board;
+        this.bits = config.bits.clone();
+        int type = config.typeAt(from);
+
+        // Empty both squares, then put the moving piece (if there is one) on the target
+        long fromMask = ~(1L << from);
+        long toMask = ~(1L << to);
+        for (int i = 0; i < TYPES; i++) {
+            this.bits[i * 2 + (from >>> 6)] &= fromMask;
+            this.bits[i * 2 + (to >>> 6)] &= toMask;
+        }
+        if (type != OCCUPIED) {
+            set(this.bits, OCCUPIED, to);
+            set(this.bits, type, to);
         }
-        String piece = this.grid[rowFrom][colFrom];
-        this.grid[rowFrom][colFrom] = ".";
-        this.grid[rowTo][colTo] = piece;
-        this.neighbors = new ArrayList<>();
-        totalConfigs.add(this);
-        uniqueConfigs.add(this);
     }
 
     /**
-     * Scans for all valid pawn moves at a certain location. If a move is valid, creates a new config and adds it to a list.
+     * Lists the occupied squares of a board.
      *
-     * @param row row to scan from.
-     * @param col column to scan from.
-     * @return The list of all new configurations from a valid move.
+     * @param bits the masks of the board.
+     * @return the occupied squares, in square order.
      */
-    public List<Configuration> pawnScan(int row, int col) {
-        List<Configuration> configs = new ArrayList<>();
-        boolean checkLeftIndex = true;
-        boolean checkRightIndex = true;
-        boolean checkUpIndex = true;
-        if (col <= 0) {
-            checkLeftIndex = false;
+    private static int[] squares(long[] bits) {
+        int[] squares = new int[Long.bitCount(bits[OCCUPIED * 2]) + Long.bitCount(bits[OCCUPIED * 2 + 1])];
+        int count = 0;
+        for (int half = 0; half < 2; half++) {
+            for (long pieces = bits[OCCUPIED * 2 + half]; pieces != 0; pieces &= pieces - 1) {
+                squares[count++] = half * Long.SIZE + Long.numberOfTrailingZeros(pieces);
+            }
         }
-        if (col >= COLS - 1) {
-            checkRightIndex = false;
+        return squares;
+    }
+
+    /**
+     * Sets a square in one of the masks.
+     *
+     * @param bits the masks.
+     * @param type the type number of the mask.
+     * @param square the square.
+     */
+    private static void set(long[] bits, int type, int square) {
+        bits[type * 2 + (square >>> 6)] |= 1L << square;
+    }
+
+    /**
+     * Is a square set in one of the masks?
+     *
+     * @param type the type number of the mask.
+     * @param square the square.
+     * @return true if it is set, false otherwise.
+     */
+    private boolean has(int type, int square) {
+        return (this.bits[type * 2 + (square >>> 6)] & 1L << square) != 0;
+    }
+
+    /**
+     * Finds the type of the piece on a square.
+     *
+     * @param square the square.
+     * @return the type number of the piece, or OCCUPIED (0) if the square is empty.
+     */
+    private int typeAt(int square) {
+        if (!has(OCCUPIED, square)) {
+            return OCCUPIED;
         }
-        if (row <= 0) {
-            checkUpIndex = false;
+        int type = PAWN;
+        while (!has(type, square)) {
+            type++;
         }
-        String to;
-        if (checkLeftIndex && checkUpIndex) {
-            to = this.grid[row - 1][col - 1];
-            if (!to.equals(".")) {
-                configs.add(new ChessConfig(this, row, col, row - 1, col - 1));
-            }
+        return type;
+    }
+
+    /**
+     * Hands each move of the piece on a square to the action: a capture on every listed square that
+     * holds a piece and has nothing in between.
+     *
+     * @param square the square to move from.
+     * @param type the type number of the piece on it.
+     * @param action what to do with each neighbor.
+     */
+    private void movesFrom(int square, int type, Consumer<? super Configuration> action) {
+        int from = this.board.subsetIndex[square];
+        if (from < 0 || type == OCCUPIED || type == OTHER) {
+            return;
         }
-        if (checkRightIndex && checkUpIndex) {
-            to = this.grid[row - 1][col + 1];
-            if (!to.equals(".")) {
-                configs.add(new ChessConfig(this, row, col, row - 1, col + 1));
+        int[] targets = this.board.targets[type][from];
+        long[] between = this.board.between[type][from];
+        long low = this.bits[OCCUPIED * 2];
+        long high = this.bits[OCCUPIED * 2 + 1];
+        for (int i = 0; i < targets.length; i++) {
+            int to = targets[i];
+            if (has(OCCUPIED, to) && (between[i * 2] & low) == 0 && (between[i * 2 + 1] & high) == 0) {
+                action.accept(new ChessConfig(this, square, to));
             }
         }
+    }
+
+    /**
+     * Lists the moves of one kind of piece from a square, whatever is on it.
+     *
+     * @param row row to scan from.
+     * @param col column to scan from.
+     * @param type the type number of the piece to move as.
+     * @return The list of all new configurations from a valid move.
+     */
+    private List<Configuration> scanAs(int row, int col, int type) {
+        List<Configuration> configs = new ArrayList<>();
+        movesFrom(row * this.board.cols + col, type, configs::add);
         return configs;
     }
 
+    /**
+     * Scans for all valid pawn moves at a certain location. If a move is valid, creates a new config and adds it to a list.
+     *
+     * @param row row to scan from.
+     * @param col column to scan from.
+     * @return The list of all new configurations from a valid move.
+     */
+    public List<Configuration> pawnScan(int row, int col) {
+        return scanAs(row, col, PAWN);
+    }
+
     /**
      * Scans for all valid rook moves at a certain location. If a move is valid, creates a new config and adds it to a list.
      * Also used for queen moves.
@@ -141,41 +429,7 @@ public class ChessConfig implements Configuration {
      * @return The list of all new configurations from a valid move.
      */
     public List<Configuration> rookScan(int row, int col) {
-        List<Configuration> configs = new ArrayList<>();
-        int curRow = row;
-        int curCol = col;
-        while (curRow > 0) {
-            curRow--;
-            if (!this.grid[curRow][curCol].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, curRow, curCol));
-                break;
-            }
-        }
-        curRow = row;
-        while (curRow < ROWS - 1) {
-            curRow++;
-            if (!this.grid[curRow][curCol].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, curRow, curCol));
-                break;
-            }
-        }
-        curRow = row;
-        while (curCol > 0) {
-            curCol--;
-            if (!this.grid[curRow][curCol].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, curRow, curCol));
-                break;
-            }
-        }
-        curCol = col;
-        while (curCol < COLS - 1) {
-            curCol++;
-            if (!this.grid[curRow][curCol].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, curRow, curCol));
-                break;
-            }
-        }
-        return configs;
+        return scanAs(row, col, ROOK);
     }
 
     /**
@@ -187,48 +441,7 @@ public class ChessConfig implements Configuration {
      * @return The list of all new configurations from a valid move.
      */
     public List<Configuration> bishopScan(int row, int col) {
-        List<Configuration> configs = new ArrayList<>();
-        int curRow = row;
-        int curCol = col;
-        while (curRow > 0 && curCol > 0) {
-            curRow--;
-            curCol--;
-            if (!this.grid[curRow][curCol].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, curRow, curCol));
-                break;
-            }
-        }
-        curRow = row;
-        curCol = col;
-        while (curRow > 0 && curCol < COLS - 1) {
-            curRow--;
-            curCol++;
-            if (!this.grid[curRow][curCol].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, curRow, curCol));
-                break;
-            }
-        }
-        curRow = row;
-        curCol = col;
-        while (curRow < ROWS - 1 && curCol > 0) {
-            curRow++;
-            curCol--;
-            if (!this.grid[curRow][curCol].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, curRow, curCol));
-                break;
-            }
-        }
-        curRow = row;
-        curCol = col;
-        while (curRow < ROWS - 1 && curCol < COLS - 1) {
-            curRow++;
-            curCol++;
-            if (!this.grid[curRow][curCol].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, curRow, curCol));
-                break;
-            }
-        }
-        return configs;
+        return scanAs(row, col, BISHOP);
     }
 
     /**
@@ -239,88 +452,7 @@ public class ChessConfig implements Configuration {
      * @return The list of all new configurations from a valid move.
      */
     public List<Configuration> knightScan(int row, int col) {
-        List<Configuration> configs = new ArrayList<>();
-        boolean upCheck = true;
-        boolean downCheck = true;
-        boolean leftCheck = true;
-        boolean rightCheck = true;
-        boolean secondUpCheck = true;
-        boolean secondDownCheck = true;
-        boolean secondLeftCheck = true;
-        boolean secondRightCheck = true;
-        if (col < 2) {
-            leftCheck = false;
-        }
-        if (col > COLS - 3) {
-            rightCheck = false;
-        }
-        if (row < 2) {
-            upCheck = false;
-        }
-        if (row > ROWS - 3) {
-            downCheck = false;
-        }
-        if (row == 0) {
-            secondUpCheck = false;
-        }
-        if (row == ROWS - 1) {
-            secondDownCheck = false;
-        }
-        if (col == 0) {
-            secondLeftCheck = false;
-        }
-        if (col == COLS - 1) {
-            secondRightCheck = false;
-        }
-        if (upCheck) {
-            if (secondLeftCheck) {
-                if (!this.grid[row - 2][col - 1].equals(".")) {
-                    configs.add(new ChessConfig(this, row, col, row - 2, col - 1));
-                }
-            }
-            if (secondRightCheck) {
-                if (!this.grid[row - 2][col + 1].equals(".")) {
-                    configs.add(new ChessConfig(this, row, col, row - 2, col + 1));
-                }
-            }
-        }
-        if (downCheck) {
-            if (secondLeftCheck) {
-                if (!this.grid[row + 2][col - 1].equals(".")) {
-                    configs.add(new ChessConfig(this, row, col, row + 2, col - 1));
-                }
-            }
-            if (secondRightCheck) {
-                if (!this.grid[row + 2][col + 1].equals(".")) {
-                    configs.add(new ChessConfig(this, row, col, row + 2, col + 1));
-                }
-            }
-        }
-        if (leftCheck) {
-            if (secondUpCheck) {
-                if (!this.grid[row - 1][col - 2].equals(".")) {
-                    configs.add(new ChessConfig(this, row, col, row - 1, col - 2));
-                }
-            }
-            if (secondDownCheck) {
-                if (!this.grid[row + 1][col - 2].equals(".")) {
-                    configs.add(new ChessConfig(this, row, col, row + 1, col - 2));
-                }
-            }
-        }
-        if (rightCheck) {
-            if (secondUpCheck) {
-                if (!this.grid[row - 1][col + 2].equals(".")) {
-                    configs.add(new ChessConfig(this, row, col, row - 1, col + 2));
-                }
-            }
-            if (secondDownCheck) {
-                if (!this.grid[row + 1][col + 2].equals(".")) {
-                    configs.add(new ChessConfig(this, row, col, row + 1, col + 2));
-                }
-            }
-        }
-        return configs;
+        return scanAs(row, col, KNIGHT);
     }
 
     /**
@@ -331,64 +463,7 @@ public class ChessConfig implements Configuration {
      * @return The list of all new configurations from a valid move.
      */
     public List<Configuration> kingScan(int row, int col) {
-        List<Configuration> configs = new ArrayList<>();
-        boolean upCheck = true;
-        boolean downCheck = true;
-        boolean leftCheck = true;
-        boolean rightCheck = true;
-        if (row == 0) {
-            upCheck = false;
-        }
-        if (row == ROWS - 1) {
-            downCheck = false;
-        }
-        if (col == 0) {
-            leftCheck = false;
-        }
-        if (col == COLS - 1) {
-            rightCheck = false;
-        }
-        if (upCheck) {
-            if (!this.grid[row - 1][col].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, row - 1, col));
-            }
-        }
-        if (downCheck) {
-            if (!this.grid[row + 1][col].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, row + 1, col));
-            }
-        }
-        if (leftCheck) {
-            if (!this.grid[row][col - 1].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, row, col - 1));
-            }
-        }
-        if (rightCheck) {
-            if (!this.grid[row][col + 1].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, row, col + 1));
-            }
-        }
-        if (upCheck && leftCheck) {
-            if (!this.grid[row - 1][col - 1].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, row - 1, col - 1));
-            }
-        }
-        if (upCheck && rightCheck) {
-            if (!this.grid[row - 1][col + 1].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, row - 1, col + 1));
-            }
-        }
-        if (downCheck && leftCheck) {
-            if (!this.grid[row + 1][col - 1].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, row + 1, col - 1));
-            }
-        }
-        if (downCheck && rightCheck) {
-            if (!this.grid[row + 1][col + 1].equals(".")) {
-                configs.add(new ChessConfig(this, row, col, row + 1, col + 1));
-            }
-        }
-        return configs;
+        return scanAs(row, col, KING);
     }
 
     /**
@@ -400,108 +475,183 @@ public class ChessConfig implements Configuration {
      * @return The list of all new configurations from a valid move.
      */
     public List<Configuration> scan(int row, int col) {
-        List<Configuration> neighbors = new ArrayList<>();
-        List<Configuration> configs;
-        String type = this.grid[row][col];
-        switch (type) {
-                case "P":
-                    configs = pawnScan(row, col);
-                    neighbors.addAll(configs);
-                    break;
-                case "B":
-                    configs = bishopScan(row, col);
-                    neighbors.addAll(configs);
-                    break;
-                case "R":
-                    configs = rookScan(row, col);
-                    neighbors.addAll(configs);
-                    break;
-                case "N":
-                    configs = knightScan(row, col);
-                    neighbors.addAll(configs);
-                    break;
-                case "K":
-                    configs = kingScan(row, col);
-                    neighbors.addAll(configs);
-                    break;
-                case "Q":
-                    configs = bishopScan(row, col);
-                    neighbors.addAll(configs);
-                    configs = rookScan(row, col);
-                    neighbors.addAll(configs);
-                    break;
-                default:
-                    break;
-            }
-            return neighbors;
+        return scanAs(row, col, typeAt(row * this.board.cols + col));
     }
 
     /**
-     * Gets the grid representing the chess board.
+     * Gets the letter of the piece on a square.
      *
-     * @return The grid representing the chess board.
+     * @param row row of the square.
+     * @param col column of the square.
+     * @return The letter of the piece, or "." if the square is empty.
+     */
+    public String getPiece(int row, int col) {
+        int square = row * this.board.cols + col;
+        int type = typeAt(square);
+        return type == OTHER ? this.board.startLetters[square] : LETTERS[type];
+    }
+
+    /**
+     * Gets the grid representing the chess board. The grid is built from the bitboards on every call.
+     *
+     * @return The grid representing the chess board, or null if the file had no board.
      */
     public String[][] getGrid() {
-        return this.grid;
+        if (this.board.rows == 0) {
+            return null;
+        }
+        String[][] grid = new String[this.board.rows][this.board.cols];
+        for (int row = 0; row < this.board.rows; row++) {
+            for (int col = 0; col < this.board.cols; col++) {
+                grid[row][col] = getPiece(row, col);
+            }
+        }
+        return grid;
     }
 
     /**
-     * Gets the list of total configs created.
+     * Gets the number of squares occupied on the board as read, the only squares a reachable position can use.
      *
-     * @return The list of total configs created.
+     * @return The number of squares encode packs.
      */
-    public static List<Configuration> getTotalConfigs() {
-        return totalConfigs;
+    public int getSubsetSize() {
+        return this.board.subsetSquares.length;
     }
 
     /**
-     * Gets the set of unique configs created.
+     * Gets the number of longs encode packs a position into.
      *
-     * @return The set of unique configs created.
+     * @return The number of longs in an encoded position (at least one).
      */
-    public static Set<Configuration> getUniqueConfigs() {
-        return uniqueConfigs;
+    public int getEncodedWords() {
+        return Math.max((this.board.subsetSquares.length + SQUARES_PER_WORD - 1) / SQUARES_PER_WORD, 1);
     }
 
     /**
-     * Is the current config a solution?
+     * Was this config reached from the same board as another, or from one read the same way?
+     * Positions only pack and unpack the same way between configs of the same board.
      *
-     * The current config is a solution if there is only one piece on the board.
+     * @param other The other config.
+     * @return true if both configs were reached from boards read the same way, false otherwise.
+     */
+    public boolean sameBoard(ChessConfig other) {
+        return this.board.sameAs(other.board);
+    }
+
+    /**
+     * Packs the current config by the squares occupied on the board as read, 3 bits per square.
+     * Square i of the subset is in word i / SQUARES_PER_WORD, starting at bit 3 * (i % SQUARES_PER_WORD).
      *
-     * @return true if the current config is a solution, false otherwise.
+     * @param words Where to pack it, at least getEncodedWords() longs; they are overwritten.
      */
-    @Override
-    public boolean isSolution() {
-        int pieces = 0;
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
-                if (!this.grid[row][col].equals(".")) {
-                    pieces++;
+    public void encode(long[] words) {
+        Arrays.fill(words, 0, getEncodedWords(), 0);
+
+        // Walk each piece type's mask, so only occupied squares are visited
+        for (int type = PAWN; type < TYPES; type++) {
+            for (int half = 0; half < 2; half++) {
+                for (long pieces = this.bits[type * 2 + half]; pieces != 0; pieces &= pieces - 1) {
+                    int i = this.board.subsetIndex[half * Long.SIZE + Long.numberOfTrailingZeros(pieces)];
+                    words[i / SQUARES_PER_WORD] |= (long) type << (i % SQUARES_PER_WORD * CODE_BITS);
                 }
             }
         }
-        if (pieces > 1) {
-            return false;
+    }
+
+    /**
+     * Packs the current config into a single long, for boards that start with at most SQUARES_PER_WORD pieces.
+     *
+     * @return The packed config.
+     * @throws IllegalStateException If the board as read had more than SQUARES_PER_WORD pieces.
+     */
+    public long encode() {
+        if (this.board.subsetSquares.length > SQUARES_PER_WORD) {
+            throw new IllegalStateException(this.board.subsetSquares.length + " squares need " + getEncodedWords() + " longs");
         }
-        else {
-            return true;
+        long[] words = new long[1];
+        encode(words);
+        return words[0];
+    }
+
+    /**
+     * Rebuilds the config a position of this config's board was packed from.
+     *
+     * @param words The packed position, as written by encode on a config of the same board.
+     * @return The config it was packed from.
+     */
+    public ChessConfig decode(long[] words) {
+        int[] subsetSquares = this.board.subsetSquares;
+        long[] bits = new long[TYPES * 2];
+        for (int i = 0; i < subsetSquares.length; i++) {
+            int type = (int) (words[i / SQUARES_PER_WORD] >>> (i % SQUARES_PER_WORD * CODE_BITS)) & ((1 << CODE_BITS) - 1);
+            if (type != OCCUPIED) {
+                set(bits, OCCUPIED, subsetSquares[i]);
+                set(bits, type, subsetSquares[i]);
+            }
         }
+        return new ChessConfig(this.board, bits);
+    }
+
+    /**
+     * Rebuilds the config a single long of this config's board was packed from.
+     *
+     * @param state The packed position, as returned by encode() on a config of the same board.
+     * @return The config it was packed from.
+     */
+    public ChessConfig decode(long state) {
+        return decode(new long[] { state });
+    }
+
+    /**
+     * Is the current config a solution?
+     *
+     * The current config is a solution if there is only one piece on the board.
+     *
+     * @return true if the current config is a solution, false otherwise.
+     */
+    @Override
+    public boolean isSolution() {
+        return rank() <= 1;
+    }
+
+    /**
+     * The rank of the current config (the number of pieces on the board.)
+     *
+     * Every move captures one piece, so every neighbor has one less.
+     *
+     * @return The number of pieces on the board.
+     */
+    @Override
+    public int rank() {
+        return Long.bitCount(this.bits[OCCUPIED * 2]) + Long.bitCount(this.bits[OCCUPIED * 2 + 1]);
     }
 
     /**
-     * Generates and stores all neighbor configurations for the current config.
+     * Generates all neighbor configurations for the current config.
      *
      * @return The collection of neighbors for the current config.
      */
     @Override
     public Collection<Configuration> getNeighbors() {
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
-                List<Configuration> neighbors = scan(row, col);
-                this.neighbors.addAll(neighbors);
+        List<Configuration> neighbors = new ArrayList<>();
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    /**
+     * Generates the neighbor configurations for the current config one piece at a time,
+     * handing each to the action. Pieces are found by scanning the occupancy mask a set bit at a time.
+     *
+     * @param action What to do with each neighbor.
+     */
+    @Override
+    public void forEachNeighbor(Consumer<? super Configuration> action) {
+        for (int half = 0; half < 2; half++) {
+            for (long pieces = this.bits[OCCUPIED * 2 + half]; pieces != 0; pieces &= pieces - 1) {
+                int square = half * Long.SIZE + Long.numberOfTrailingZeros(pieces);
+                movesFrom(square, typeAt(square), action);
             }
         }
-        return this.neighbors;
     }
 
     /**
@@ -512,54 +662,30 @@ public class ChessConfig implements Configuration {
      */
     @Override
     public boolean equals(Object other) {
-        boolean result = false;
-        if (other instanceof ChessConfig) {
-            result = true;
-            ChessConfig otherConfig = (ChessConfig) other;
-            String[][] otherGrid = otherConfig.getGrid();
-            for (int row = 0; row < ROWS; row++) {
-                for (int col = 0; col < COLS; col++) {
-                    if (!this.grid[row][col].equals(otherGrid[row][col])) {
-                        result = false;
-                    }
-                }
-            }
-        }
-        return result;
+        return other instanceof ChessConfig && Arrays.equals(this.bits, ((ChessConfig) other).bits)
+                && this.board.sameAs(((ChessConfig) other).board);
     }
 
     /**
-     * Checks to see if another object is the same as the current config, but is much stricter and compares the strings (pieces) by
-     * memory location and not equality. This is helpful for checking valid captures when a user is playing and making selections.
+     * Checks to see if another object is the same as the current config. Pieces used to be compared by memory location
+     * to check valid captures when a user is playing and making selections; on bitboards pieces have no identity beyond
+     * their type and square, so this is the same as equals.
      *
      * @param other The object to compare to.
      * @return true if the current config and other object are the equal strictly by piece, false otherwise.
      */
     public boolean strictEquals(Object other) {
-        boolean result = false;
-        if (other instanceof ChessConfig) {
-            result = true;
-            ChessConfig otherConfig = (ChessConfig) other;
-            String[][] otherGrid = otherConfig.getGrid();
-            for (int row = 0; row < ROWS; row++) {
-                for (int col = 0; col < COLS; col++) {
-                    if (this.grid[row][col] != (otherGrid[row][col])) {
-                        result = false;
-                    }
-                }
-            }
-        }
-        return result;
+        return equals(other);
     }
 
     /**
-     * The hash code of the current config (the hash code of the grid.)
+     * The hash code of the current config (the hash code of the masks.)
      *
      * @return The hash code of the current config.
      */
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(this.grid);
+        return Arrays.hashCode(this.bits);
     }
 
     /**
@@ -576,21 +702,21 @@ public class ChessConfig implements Configuration {
      * */
     @Override
     public String toString() {
-        String gridString = "";
-        gridString += "\n";
-        gridString += "  ";
-        for (Integer colNum = 0; colNum < COLS; colNum++) {
-            gridString += colNum + " ";
+        StringBuilder gridString = new StringBuilder();
+        gridString.append("\n");
+        gridString.append("  ");
+        for (int colNum = 0; colNum < this.board.cols; colNum++) {
+            gridString.append(colNum).append(" ");
         }
-        gridString += "\n";
-        for (int row = 0; row < ROWS; row++) {
-            gridString += row + " ";
-            for (int col = 0; col < COLS; col++) {
-                gridString += this.grid[row][col] + " ";
+        gridString.append("\n");
+        for (int row = 0; row < this.board.rows; row++) {
+            gridString.append(row).append(" ");
+            for (int col = 0; col < this.board.cols; col++) {
+                gridString.append(getPiece(row, col)).append(" ");
             }
-            gridString += "\n";
+            gridString.append("\n");
         }
-        return gridString;
+        return gridString.toString();
     }
 
 }
@@ -2,6 +2,8 @@ package puzzles.chess.model;
 
 import puzzles.common.Observer;
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.SolveLimits;
+import puzzles.common.solver.SolveResult;
 import puzzles.common.solver.Solver;
 
 import java.io.*;
@@ -15,6 +17,9 @@ import java.util.List;
  */
 public class ChessModel {
 
+    /** Longest a hint may search before giving up, in milliseconds. */
+    public static final long HINT_TIME_LIMIT = 10_000;
+
     /** the collection of observers of this model */
     private final List<Observer<ChessModel, String>> observers = new LinkedList<>();
 
@@ -24,6 +29,9 @@ public class ChessModel {
     /** the current configuration */
     private ChessConfig currentConfig;
 
+    /** Solver for hints, kept so repeated hints reuse its queue and tables. */
+    private final Solver solver = new Solver();
+
     /**
      * Has the first selection been made for capturing?
      */
@@ -53,12 +61,15 @@ public class ChessModel {
     /**
      * If there is a reachable solution from the current config, find the next move, updates the config, and alerts the observers
      * that the hint was a success, otherwise alerts the observers that there is no solution.
+     * Gives up and alerts the observers if the search takes longer than HINT_TIME_LIMIT.
      */
     public void hint() {
-        Solver solver = new Solver();
-        solver.solve(this.currentConfig);
-        LinkedList<Configuration> path = solver.getPath();
-        if (path == null) {
+        SolveResult result = this.solver.solve(this.currentConfig, SolveLimits.NONE.withTimeLimit(HINT_TIME_LIMIT));
+        LinkedList<Configuration> path = this.solver.getPath();
+        if (result.isAborted()) {
+            alertObservers("Hint gave up, the board is too hard to solve quickly...");
+        }
+        else if (path == null) {
             alertObservers("No solution...");
         }
         else if (path.size() > 1) {
@@ -1,5 +1,6 @@
 package puzzles.chess.solver;
 
+import puzzles.chess.model.ChessCodec;
 import puzzles.chess.model.ChessConfig;
 import puzzles.common.solver.Solver;
 
@@ -41,13 +42,13 @@ public class Chess {
             File file = getFile(fileName);
             try {
                 ChessConfig chess = new ChessConfig(file);
-                Solver solver = new Solver();
+                Solver solver = new Solver(new ChessCodec(chess));
                 solver.solve(chess);
                 String path = solver.getPathAsString();
                 System.out.print("File: " + fileName);
                 System.out.print(chess);
-                System.out.println("Total configs: " + ChessConfig.getTotalConfigs().size());
-                System.out.println("Unique configs: " + ChessConfig.getUniqueConfigs().size());
+                System.out.println("Total configs: " + solver.getTotalConfigs());
+                System.out.println("Unique configs: " + solver.getUniqueConfigs());
                 System.out.println();
                 System.out.println(path);
             }
@@ -0,0 +1,230 @@
+package puzzles.chess.solver;
+
+import puzzles.chess.model.ChessConfig;
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.PathSolver;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * Depth-first solver for solitaire chess.
+ *
+ * Every move captures exactly one piece, so every solution from a board with n pieces is exactly n - 1
+ * moves long and the first solution a depth-first search reaches is already a shortest one. The search
+ * keeps only the current line of play, one neighbor iterator per move, and a DeadPositionSet of the
+ * positions it has fully searched without finding a solution. A position can never come back on the line
+ * that reached it (the piece count only goes down), so the dead set is all it needs to avoid repeating work.
+ *
+ * Positions go into the dead set in ChessConfig's square-subset encoding, 3 bits for each square
+ * occupied on the board as read, 21 squares to a long.
+ */
+public class ChessDepthFirstSolver implements PathSolver {
+
+    /** Fields */
+    // Buffer the position being looked up is packed into
+    private long[] key;
+
+    // Positions searched without finding a solution
+    private DeadPositionSet dead;
+
+    // Positions on the current line of play, by depth
+    private ChessConfig[] stack;
+
+    // Unsearched neighbors of each position on the current line of play, by depth
+    private Iterator<Configuration>[] neighbors;
+
+    // Number of configurations generated
+    private long totalConfigs;
+
+    // Number of configurations expanded
+    private long expandedConfigs;
+
+    // Number of neighbors skipped because they were already known to be dead
+    private long deadHits;
+
+    // Path to the solution, if it exists
+    private LinkedList<Configuration> path;
+
+
+    /** Constructor */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public ChessDepthFirstSolver() {
+        this.stack = new ChessConfig[16];
+        this.neighbors = new Iterator[16];
+        this.path = null;
+    }
+
+    /**
+     * Searches depth first from the start board until the first solution, which is a shortest one.
+     * Also builds the path from start to finish if a solution is found.
+     *
+     * @param start the starting board to solve from.
+     */
+    public void solve(ChessConfig start) {
+        this.totalConfigs = 1;
+        this.expandedConfigs = 0;
+        this.deadHits = 0;
+        this.path = null;
+
+        // Keep the dead set from the last solve if its keys are as wide, so it keeps its capacity
+        int words = start.getEncodedWords();
+        if (this.dead == null || this.dead.getWidth() != words) {
+            this.key = new long[words];
+            this.dead = new DeadPositionSet(words);
+        }
+        else {
+            this.dead.clear();
+        }
+
+        // A board with one piece (or none) is already solved
+        int pieces = start.rank();
+        if (pieces <= 1) {
+            this.path = new LinkedList<>();
+            this.path.add(start);
+            return;
+        }
+
+        // Every neighbor at this depth has one piece left
+        int solutionDepth = pieces - 1;
+        int depth = 0;
+        push(0, start);
+
+        while (depth >= 0) {
+            // Out of neighbors at this depth, so nothing below this position is solvable
+            if (!this.neighbors[depth].hasNext()) {
+                this.dead.add(pack(this.stack[depth]));
+                this.stack[depth] = null;
+                this.neighbors[depth] = null;
+                depth--;
+                continue;
+            }
+
+            ChessConfig next = (ChessConfig) this.neighbors[depth].next();
+            this.totalConfigs++;
+
+            // Captured down to one piece, the current line of play leads to it
+            if (depth + 1 == solutionDepth) {
+                buildPath(depth, next);
+                return;
+            }
+
+            // Skip positions already searched without a solution
+            if (this.dead.contains(pack(next))) {
+                this.deadHits++;
+                continue;
+            }
+
+            // Go deeper
+            depth++;
+            push(depth, next);
+        }
+
+        // Let go of the search state
+        Arrays.fill(this.stack, null);
+        Arrays.fill(this.neighbors, null);
+    }
+
+    /**
+     * Packs a position into the key buffer.
+     *
+     * @param config the position.
+     * @return the key buffer, holding the packed position.
+     */
+    private long[] pack(ChessConfig config) {
+        config.encode(this.key);
+        return this.key;
+    }
+
+    /**
+     * Puts a position on the current line of play at a depth and starts iterating its neighbors.
+     *
+     * @param depth the depth to put it at.
+     * @param config the position.
+     */
+    private void push(int depth, ChessConfig config) {
+        if (depth == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, depth << 1);
+            this.neighbors = Arrays.copyOf(this.neighbors, depth << 1);
+        }
+        this.stack[depth] = config;
+        this.neighbors[depth] = config.neighborIterator();
+        this.expandedConfigs++;
+    }
+
+    /**
+     * Builds the path from the positions on the current line of play plus the solution.
+     *
+     * @param depth the depth of the last position on the current line of play.
+     * @param goal the solution reached from it.
+     */
+    private void buildPath(int depth, Configuration goal) {
+        LinkedList<Configuration> path = new LinkedList<>();
+        for (int i = 0; i <= depth; i++) {
+            path.add(this.stack[i]);
+        }
+        path.add(goal);
+        this.path = path;
+
+        // Let go of the search state
+        Arrays.fill(this.stack, null);
+        Arrays.fill(this.neighbors, null);
+    }
+
+    /**
+     * Returns the total number of configurations generated.
+     *
+     * @return the total number of configurations seen in the course of generating the solution.
+     */
+    public long getTotalConfigs() {
+        return this.totalConfigs;
+    }
+
+    /**
+     * Returns the number of configurations expanded.
+     *
+     * @return the number of configurations whose neighbors were generated.
+     */
+    public long getExpandedConfigs() {
+        return this.expandedConfigs;
+    }
+
+    /**
+     * Returns the number of positions found to have no solution.
+     *
+     * @return the size of the dead set.
+     */
+    public int getDeadPositions() {
+        return this.dead == null ? 0 : this.dead.size();
+    }
+
+    /**
+     * Returns the number of times the dead set let the search skip a position.
+     *
+     * @return the number of dead-set hits.
+     */
+    public long getDeadHits() {
+        return this.deadHits;
+    }
+
+    /**
+     * Returns the number of bytes the dead set takes up.
+     *
+     * @return the bytes allocated to dead positions.
+     */
+    public long getBytesUsed() {
+        return this.dead == null ? 0 : this.dead.bytes();
+    }
+
+    /**
+     * Method that returns the path from start configuration to end configuration as a LinkedList.
+     * Note that it is possible to get null as a result from this method if there is not a path
+     * from the start configuration to the end configuration or if solve() has not been called yet.
+     *
+     * @return the path to the solution if it exists, else returns null.
+     */
+    public LinkedList<Configuration> getPath() {
+        return this.path;
+    }
+}
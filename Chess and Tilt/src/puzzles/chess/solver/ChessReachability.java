@@ -0,0 +1,51 @@
+package puzzles.chess.solver;
+
+import puzzles.chess.model.ChessConfig;
+import puzzles.common.solver.ReachabilityExplorer;
+import puzzles.common.solver.SolveLimits;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Explores every position reachable from a solitaire chess board, or from each board in a directory,
+ * and prints a report on each one as soon as it is done. Boards are explored one at a time, and
+ * each exploration runs on all cores.
+ */
+public class ChessReachability {
+
+    /**
+     * Explores the board named on the command line, or every board in the directory named there.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.out.println("Usage: java ChessReachability filename-or-directory");
+            return;
+        }
+
+        File input = new File(args[0]);
+        File[] files = input.isDirectory() ? input.listFiles(File::isFile) : new File[] { input };
+        if (files == null) {
+            System.out.println("Can't read directory: " + args[0]);
+            return;
+        }
+        Arrays.sort(files);
+
+        ReachabilityExplorer explorer = new ReachabilityExplorer();
+
+        // Stop a board before it uses up the heap, so one huge board does not end the whole run
+        SolveLimits limits = SolveLimits.NONE.withMaxMemory(Runtime.getRuntime().maxMemory() / 4 * 3);
+        for (File file : files) {
+            try {
+                ChessConfig start = new ChessConfig(file);
+                System.out.print(explorer.explore(file.getPath(), start, limits, null));
+            }
+            catch (IOException e) {
+                System.out.println("Can't read file: " + file.getPath());
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package puzzles.chess.solver;
+
+import puzzles.chess.model.ChessConfig;
+import puzzles.common.solver.LayeredSolver;
+import puzzles.common.solver.Solver;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Times the BFS Solver against the LayeredSolver and the ChessDepthFirstSolver on a solitaire chess board,
+ * or on each board in a directory, and prints one line per board: each solver's time, how much it searched
+ * or held at once, and how long its solution is. Each board is solved a few times first so every solver
+ * is timed once the JIT has warmed up.
+ */
+public class ChessSolveComparison {
+
+    /** Constant */
+    // Untimed solves of each board before the timed one
+    private static final int WARMUP_SOLVES = 3;
+
+    /**
+     * Compares the solvers on the board named on the command line, or every board in the directory named there.
+     *
+     * @param args The command line arguments.
+     */
+    public static void main(String[] args) {
+        if (args.length != 1) {
+            System.out.println("Usage: java ChessSolveComparison filename-or-directory");
+            return;
+        }
+
+        File input = new File(args[0]);
+        File[] files = input.isDirectory() ? input.listFiles(File::isFile) : new File[] { input };
+        if (files == null) {
+            System.out.println("Can't read directory: " + args[0]);
+            return;
+        }
+        Arrays.sort(files);
+
+        Solver bfs = new Solver();
+        LayeredSolver layered = new LayeredSolver();
+        ChessDepthFirstSolver dfs = new ChessDepthFirstSolver();
+        System.out.printf("%-24s %10s %10s %6s %10s %10s %6s %10s %10s %10s %6s%n",
+                "board", "bfs ms", "bfs unique", "moves", "layer ms", "widest", "moves",
+                "dfs ms", "dfs expand", "dfs dead", "moves");
+        for (File file : files) {
+            try {
+                ChessConfig start = new ChessConfig(file);
+                if (start.getGrid() == null) {
+                    System.out.println("No board in file: " + file.getPath());
+                    continue;
+                }
+                for (int i = 0; i < WARMUP_SOLVES; i++) {
+                    bfs.solve(start);
+                    layered.solve(start);
+                    dfs.solve(start);
+                }
+
+                long bfsStart = System.nanoTime();
+                bfs.solve(start);
+                long bfsNanos = System.nanoTime() - bfsStart;
+
+                long layeredStart = System.nanoTime();
+                layered.solve(start);
+                long layeredNanos = System.nanoTime() - layeredStart;
+
+                long dfsStart = System.nanoTime();
+                dfs.solve(start);
+                long dfsNanos = System.nanoTime() - dfsStart;
+
+                System.out.printf("%-24s %10.2f %10d %6s %10.2f %10d %6s %10.2f %10d %10d %6s%n", file.getName(),
+                        bfsNanos / 1e6, bfs.getUniqueConfigs(), moves(bfs.getPath() == null ? -1 : bfs.getPath().size()),
+                        layeredNanos / 1e6, layered.getWidestLayer(),
+                        moves(layered.getPath() == null ? -1 : layered.getPath().size()),
+                        dfsNanos / 1e6, dfs.getExpandedConfigs(), dfs.getDeadPositions(),
+                        moves(dfs.getPath() == null ? -1 : dfs.getPath().size()));
+            }
+            catch (IOException e) {
+                System.out.println("Can't read file: " + file.getPath());
+            }
+        }
+    }
+
+    /**
+     * Describes the length of a solution.
+     *
+     * @param pathSize the number of configurations on the path, or -1 if there is none.
+     * @return the number of moves, or "none".
+     */
+    private static String moves(int pathSize) {
+        return pathSize < 0 ? "none" : String.valueOf(pathSize - 1);
+    }
+}
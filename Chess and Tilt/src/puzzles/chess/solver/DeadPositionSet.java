@@ -0,0 +1,188 @@
+package puzzles.chess.solver;
+
+import java.util.Arrays;
+
+/**
+ * A set of chess positions known to have no solution, each packed into a fixed number of longs.
+ * Keys are stored back to back in one long array with open addressing, so a position costs its
+ * packed words plus the table's slack instead of a ChessConfig, its grid and a HashSet node.
+ * A key that is all zeros marks an empty slot, so keys must have at least one bit set.
+ */
+public class DeadPositionSet {
+
+    /** Constant */
+    // Number of slots when none is given
+    private static final int DEFAULT_SLOTS = 1 << 10;
+
+    /** Fields */
+    // Number of longs in each key
+    private final int width;
+
+    // Keys, width longs per slot (all zeros for an empty slot)
+    private long[] keys;
+
+    // Mask to turn a hash into a slot index (slots are always a power of two)
+    private int mask;
+
+    // Number of keys in the set
+    private int size;
+
+
+    /**
+     * Constructor with the number of longs in a key.
+     *
+     * @param width the number of longs each packed position takes.
+     */
+    public DeadPositionSet(int width) {
+        this.width = width;
+        this.keys = new long[DEFAULT_SLOTS * width];
+        this.mask = DEFAULT_SLOTS - 1;
+        this.size = 0;
+    }
+
+    /**
+     * Adds a position to the set.
+     *
+     * @param key the packed position, width longs long with at least one bit set.
+     * @return true if it was not already in the set, false otherwise.
+     */
+    public boolean add(long[] key) {
+        int slot = find(key);
+        if (!isEmpty(slot)) {
+            return false;
+        }
+        System.arraycopy(key, 0, this.keys, slot * this.width, this.width);
+        this.size++;
+
+        // Keep the table at most half full so probes stay short
+        if (this.size << 1 > this.mask + 1) {
+            grow();
+        }
+        return true;
+    }
+
+    /**
+     * Is a position in the set?
+     *
+     * @param key the packed position, width longs long.
+     * @return true if it is in the set, false otherwise.
+     */
+    public boolean contains(long[] key) {
+        return !isEmpty(find(key));
+    }
+
+    /** Accessor for the number of longs in each key */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /** Accessor for the number of positions in the set */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the number of bytes the table takes up.
+     *
+     * @return the bytes allocated to keys.
+     */
+    public long bytes() {
+        return (long) this.keys.length * Long.BYTES;
+    }
+
+    /**
+     * Empties the set, keeping its current capacity.
+     */
+    public void clear() {
+        Arrays.fill(this.keys, 0);
+        this.size = 0;
+    }
+
+    /**
+     * Finds the slot holding a key, or the empty slot where it would go.
+     *
+     * @param key the packed position.
+     * @return the slot index.
+     */
+    private int find(long[] key) {
+        int slot = hash(key, 0, this.width) & this.mask;
+        while (!isEmpty(slot) && !matches(slot, key)) {
+            slot = (slot + 1) & this.mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Is a slot empty?
+     *
+     * @param slot the slot index.
+     * @return true if every word of the slot is zero.
+     */
+    private boolean isEmpty(int slot) {
+        int base = slot * this.width;
+        for (int i = 0; i < this.width; i++) {
+            if (this.keys[base + i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Does a slot hold a key?
+     *
+     * @param slot the slot index.
+     * @param key the packed position.
+     * @return true if every word of the slot matches the key.
+     */
+    private boolean matches(int slot, long[] key) {
+        int base = slot * this.width;
+        for (int i = 0; i < this.width; i++) {
+            if (this.keys[base + i] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mixes the words of a key into a well-spread int.
+     *
+     * @param words the array holding the key.
+     * @param from the index of the key's first word.
+     * @param width the number of words in the key.
+     * @return the hash.
+     */
+    private static int hash(long[] words, int from, int width) {
+        long hash = 0;
+        for (int i = 0; i < width; i++) {
+            hash = (hash + words[from + i]) * 0x9E3779B97F4A7C15L;
+            hash ^= hash >>> 32;
+        }
+        return (int) hash;
+    }
+
+    /**
+     * Doubles the number of slots and re-inserts every key.
+     */
+    private void grow() {
+        long[] old = this.keys;
+        int slots = (this.mask + 1) << 1;
+        this.keys = new long[slots * this.width];
+        this.mask = slots - 1;
+
+        for (int from = 0; from < old.length; from += this.width) {
+            boolean empty = true;
+            for (int i = 0; i < this.width && empty; i++) {
+                empty = old[from + i] == 0;
+            }
+            if (!empty) {
+                int slot = hash(old, from, this.width) & this.mask;
+                while (!isEmpty(slot)) {
+                    slot = (slot + 1) & this.mask;
+                }
+                System.arraycopy(old, from, this.keys, slot * this.width, this.width);
+            }
+        }
+    }
+}
@@ -8,9 +8,11 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Consumer;
 
 import static puzzles.tilt.solver.Tilt.INVALID_FILE_MESSAGE;
 
@@ -172,6 +174,16 @@ public class TiltConfig implements Configuration, TiltTiles {
         return N;
     }
 
+    /** Accessor for the row of the exit hole */
+    public int getExitRow() {
+        return exitRow;
+    }
+
+    /** Accessor for the column of the exit hole */
+    public int getExitCol() {
+        return exitCol;
+    }
+
     /**
      * Tests whether this TiltConfig is a solution to the puzzle.
      * This TiltConfig is a solution if there are no green sliders remaining on the board.
@@ -526,30 +538,54 @@ public class TiltConfig implements Configuration, TiltTiles {
      * Finds the valid neighboring configurations of this TiltConfig:
      * The board when it is tilted north, east, south, and west.
      *
-     * @return a HashSet containing the valid neighboring configurations.
+     * @return a List containing the valid neighboring configurations.
      */
     @Override
     public Collection<Configuration> getNeighbors() {
-        // Set up the empty HashSet of neighboring configurations
-        LinkedHashSet<Configuration> neighbors = new LinkedHashSet<>();
+        // Collect the neighbors handed over by forEachNeighbor
+        List<Configuration> neighbors = new ArrayList<>(4);
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
 
-        // Add all neighbors to the result that are not null
-        TiltConfig n, s, e, w;
-        if ((n = northTiltConfig()) != null && !n.equals(this)) {
-            neighbors.add(n);
+    /**
+     * Tilts the board north, south, east, and west in turn and hands each valid,
+     * distinct result to the action as soon as it is made.
+     *
+     * @param action what to do with each neighboring configuration.
+     */
+    @Override
+    public void forEachNeighbor(Consumer<? super Configuration> action) {
+        // Hand over each tilt that is valid and not the same board as this one or an earlier tilt
+        TiltConfig n = northTiltConfig();
+        if (isNewTilt(n, null, null, null)) {
+            action.accept(n);
         }
-        if ((s = southTiltConfig()) != null && !s.equals(this)) {
-            neighbors.add(s);
+        TiltConfig s = southTiltConfig();
+        if (isNewTilt(s, n, null, null)) {
+            action.accept(s);
         }
-        if ((e = eastTiltConfig()) != null && !e.equals(this)) {
-            neighbors.add(e);
+        TiltConfig e = eastTiltConfig();
+        if (isNewTilt(e, n, s, null)) {
+            action.accept(e);
         }
-        if ((w = westTiltConfig()) != null && !w.equals(this)) {
-            neighbors.add(w);
+        TiltConfig w = westTiltConfig();
+        if (isNewTilt(w, n, s, e)) {
+            action.accept(w);
         }
+    }
 
-        // Return the HashSet of neighbors that are not null
-        return neighbors;
+    /**
+     * Tests whether a tilt gives a valid board that differs from this one and from the earlier tilts.
+     *
+     * @param tilt the tilted configuration, or null if the tilt was invalid.
+     * @param a an earlier tilt, or null.
+     * @param b an earlier tilt, or null.
+     * @param c an earlier tilt, or null.
+     * @return true if the tilt is a new neighbor, false otherwise.
+     */
+    private boolean isNewTilt(TiltConfig tilt, TiltConfig a, TiltConfig b, TiltConfig c) {
+        return tilt != null && !tilt.equals(this) && !tilt.equals(a) && !tilt.equals(b) && !tilt.equals(c);
     }
 
     /**
@@ -0,0 +1,49 @@
+package puzzles.tilt.model;
+
+import puzzles.common.solver.Heuristic;
+import puzzles.tilt.TiltTiles;
+
+/**
+ * TiltHeuristic - Estimates how many tilts a TiltConfig is from being solved.
+ *
+ * A green slider in the exit hole's row or column needs at least one more tilt to drop in,
+ * and any other green slider needs at least two (one to line up with the hole, one to drop in).
+ * One tilt can drop several greens at once, so the estimate is the largest of these, not their sum.
+ * It never overestimates, so A* with this heuristic still finds the shortest solution.
+ */
+public class TiltHeuristic implements Heuristic<TiltConfig>, TiltTiles {
+
+    /**
+     * Estimates the number of tilts left to solve a TiltConfig.
+     *
+     * @param config the TiltConfig to estimate from.
+     * @return 0 if solved, 1 if every green is lined up with the exit, else 2.
+     */
+    @Override
+    public int estimate(TiltConfig config) {
+        // No greens left means solved
+        if (config.getNumGreen() == 0) {
+            return 0;
+        }
+
+        int n = config.getBoardSize();
+        int exitRow = config.getExitRow();
+        int exitCol = config.getExitCol();
+
+        // Look for a green slider that is not lined up with the exit
+        for (int row = 0; row < n; row++) {
+            // Every green in the exit row is lined up, skip it
+            if (row == exitRow) {
+                continue;
+            }
+            for (int col = 0; col < n; col++) {
+                if (col != exitCol && config.getGridCell(row, col) == GREEN) {
+                    return 2;
+                }
+            }
+        }
+
+        // Every green is lined up with the exit
+        return 1;
+    }
+}
@@ -1,8 +1,10 @@
 package puzzles.tilt.model;
 
 import puzzles.common.Observer;
+import puzzles.common.solver.AStarSolver;
 import puzzles.common.solver.Configuration;
-import puzzles.common.solver.Solver;
+import puzzles.common.solver.SolveLimits;
+import puzzles.common.solver.SolveResult;
 import puzzles.tilt.TiltException;
 
 import java.io.File;
@@ -16,6 +18,8 @@ public class TiltModel {
     public static final String ALREADY_SOLVED = "Already solved!";
     // Message to display if the board was JUST solved.
     public static final String BOARD_SOLVED = "Board solved!";
+    // Longest a hint may search before giving up, in milliseconds
+    public static final long HINT_TIME_LIMIT = 10_000;
     
     /** Fields */
     // The collection of observers of this model
@@ -28,6 +32,8 @@ public class TiltModel {
     private boolean gameOver;
     // Path from the current configuration to the solution (for hint purposes)
     private LinkedList<Configuration> currentSolutionPath;
+    // A* solver for hints, kept so repeated hints reuse its table and heap
+    private final AStarSolver<TiltConfig> solver = new AStarSolver<>(new TiltHeuristic());
 
     /** Constructor */
     public TiltModel() {
@@ -202,6 +208,7 @@ public class TiltModel {
      * automatically updates the board's current state to the state from the hint.
      * This method also saves the path to the solution for future reference,
      * in case the user asks for multiple hints in a row.
+     * Gives up without changing the board if the search takes longer than HINT_TIME_LIMIT.
      */
     public void hint() {
         // If the game is over, you can't get a hint.
@@ -212,14 +219,17 @@ public class TiltModel {
 
         // Otherwise, if there is no hint path yet, generate one.
         if (this.currentSolutionPath == null) {
-            // Set up a new Solver
-            Solver solver = new Solver();
+            // Solve the puzzle with currentConfig as the starting Configuration, within the time limit
+            SolveResult result = this.solver.solve(this.currentConfig, SolveLimits.NONE.withTimeLimit(HINT_TIME_LIMIT), null);
 
-            // Solve the puzzle with currentConfig as the starting Configuration
-            solver.solve(this.currentConfig);
+            // If it took too long, keep the board the same and inform user
+            if (result.isAborted()) {
+                alertObservers("Hint gave up, board too hard!");
+                return;
+            }
 
             // Get the solution path and save it to currentSolutionPath
-            this.currentSolutionPath = solver.getPath();
+            this.currentSolutionPath = this.solver.getPath();
         }
 
         // Check to see if the path is still null after generating. If so...
@@ -0,0 +1,54 @@
+package puzzles.tilt.solver;
+
+import puzzles.common.solver.ReachabilityExplorer;
+import puzzles.common.solver.SolveLimits;
+import puzzles.tilt.TiltException;
+import puzzles.tilt.model.TiltConfig;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * TiltReachability
+ * Explores every board reachable from a Tilt puzzle, or from each puzzle in a directory,
+ * and prints a report on each one as soon as it is done.
+ * Boards are explored one at a time, since TiltConfig keeps the board size in static fields;
+ * each exploration runs on all cores.
+ */
+public class TiltReachability {
+
+    /**
+     * The main method.
+     */
+    public static void main(String[] args) {
+        // If the user gave bad input...
+        if (args.length != 1) {
+            // Display usage message
+            System.out.println("Usage: java TiltReachability filename-or-directory");
+            return;
+        }
+
+        // Explore the one file, or every file in the directory in name order
+        File input = new File(args[0]);
+        File[] files = input.isDirectory() ? input.listFiles(File::isFile) : new File[] { input };
+        if (files == null) {
+            System.out.println(Tilt.INVALID_FILE_MESSAGE);
+            return;
+        }
+        Arrays.sort(files);
+
+        ReachabilityExplorer explorer = new ReachabilityExplorer();
+
+        // Stop a board before it uses up the heap, so one huge board does not end the whole run
+        SolveLimits limits = SolveLimits.NONE.withMaxMemory(Runtime.getRuntime().maxMemory() / 4 * 3);
+        for (File file : files) {
+            try {
+                TiltConfig start = TiltConfig.loadFile(file, false);
+                System.out.print(explorer.explore(file.getPath(), start, limits, null));
+            }
+            catch (TiltException e) {
+                System.out.println(file.getPath() + ": " + e.getMessage());
+            }
+        }
+    }
+}
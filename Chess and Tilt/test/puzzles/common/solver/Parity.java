@@ -0,0 +1,257 @@
+package puzzles.common.solver;
+
+import puzzles.chess.model.ChessCodec;
+import puzzles.chess.model.ChessConfig;
+import puzzles.clock.ClockCodec;
+import puzzles.clock.ClockConfig;
+import puzzles.tilt.model.TiltConfig;
+import puzzles.water.WaterCodec;
+import puzzles.water.WaterConfig;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parity check for the shared solver engine. Runs every recorded board of all four puzzles through
+ * Solver, once on objects and once packed when the puzzle has a codec, and checks the number of moves
+ * and the total and unique configuration counts against the recorded output in output/.
+ *
+ * Chess and tilt boards come from data/, and clock and water instances from the names of their files
+ * in output/, which hold the command line arguments. Some files in output/ were recorded with older
+ * move generators that produced more neighbors; their moves still have to match, but their counts are
+ * checked against RECOUNTED instead, the counts this tree's move generators have always given.
+ *
+ * Run it from the "Chess and Tilt" directory, or pass that directory as the only argument.
+ * Exits with status 1 if anything does not match.
+ */
+public class Parity {
+
+    /** Constants */
+    // Total and unique counts for boards whose recorded counts came from an older move generator, by name
+    private static final Map<String, long[]> RECOUNTED = Map.ofEntries(
+            Map.entry("chess-5", new long[] { 344065, 32767 }),
+            Map.entry("chess-6", new long[] { 121643, 21260 }),
+            Map.entry("tilt-0", new long[] { 7, 4 }),
+            Map.entry("tilt-1", new long[] { 14, 9 }),
+            Map.entry("tilt-2", new long[] { 23, 12 }),
+            Map.entry("tilt-3", new long[] { 73, 43 }),
+            Map.entry("tilt-4", new long[] { 59, 31 }),
+            Map.entry("tilt-5", new long[] { 1094, 422 }),
+            Map.entry("tilt-6", new long[] { 33, 19 }),
+            Map.entry("tilt-7", new long[] { 1487, 854 }),
+            Map.entry("tilt-8", new long[] { 10019, 5577 }),
+            Map.entry("tilt-9", new long[] { 1018, 583 }),
+            Map.entry("tilt-10", new long[] { 672133, 409918 }),
+            Map.entry("water-4-3-5", new long[] { 47, 15 }),
+            Map.entry("water-4-6-15", new long[] { 51, 14 }),
+            Map.entry("water-17-19-31", new long[] { 95, 27 }),
+            Map.entry("water-2-5-9-14", new long[] { 1360, 207 }),
+            Map.entry("water-30-23-31-43", new long[] { 6141, 1041 }),
+            Map.entry("water-16-11-17-29-41", new long[] { 7294, 1416 }),
+            Map.entry("water-37-5-11-17-29-41", new long[] { 88231, 12288 }),
+            Map.entry("water-42-70-39-1001", new long[] { 218693, 27283 }),
+            Map.entry("water-60-39-269-677-919-1553", new long[] { 7585959, 824923 }),
+            Map.entry("water-1042-1086-1097-1100-2163", new long[] { 15700513, 1366994 }));
+
+    // Ending of every recorded output file
+    private static final String OUTPUT_SUFFIX = "-out.txt";
+
+    // Recorded step lines, with the step number as group 1
+    private static final Pattern STEP = Pattern.compile("^Step (\\d+):");
+
+    /** Fields */
+    // Number of boards checked
+    private static int checked = 0;
+
+    // Number of boards that did not match
+    private static int failures = 0;
+
+    /**
+     * Checks every recorded board of every puzzle.
+     *
+     * @param args [0]: the "Chess and Tilt" directory, "." if not given.
+     * @throws IOException if a board or its recorded output can't be read.
+     */
+    public static void main(String[] args) throws IOException {
+        File base = new File(args.length > 0 ? args[0] : ".");
+
+        for (File board : boards(new File(base, "data/chess"))) {
+            String name = board.getName().replaceFirst("\\.txt$", "");
+            ChessConfig start = new ChessConfig(board);
+            check(name, new File(base, "output/chess/" + name + OUTPUT_SUFFIX), start, new ChessCodec(start));
+        }
+
+        for (File board : boards(new File(base, "data/tilt"))) {
+            String name = board.getName().replaceFirst("\\.txt$", "");
+            check(name, new File(base, "output/tilt/" + name + OUTPUT_SUFFIX), TiltConfig.loadFile(board, false), null);
+        }
+
+        for (File recorded : boards(new File(base, "output/clock"))) {
+            int[] numbers = instance(recorded);
+            ClockConfig clock = new ClockConfig(numbers[0], numbers[1], numbers[2]);
+            check(name(recorded), recorded, clock, new ClockCodec());
+        }
+
+        for (File recorded : boards(new File(base, "output/water"))) {
+            int[] numbers = instance(recorded);
+            List<Integer> sizes = new ArrayList<>();
+            for (int i = 1; i < numbers.length; i++) {
+                sizes.add(numbers[i]);
+            }
+            check(name(recorded), recorded, new WaterConfig(sizes, numbers[0]), new WaterCodec(sizes));
+        }
+
+        System.out.println(checked + " boards checked, " + failures + " failed");
+        if (checked == 0 || failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Lists the files in a directory in name order, leaving out recorded PTUI sessions.
+     *
+     * @param directory the directory to list.
+     * @return its files.
+     * @throws IOException if the directory can't be read.
+     */
+    private static File[] boards(File directory) throws IOException {
+        File[] files = directory.listFiles(file -> file.isFile() && !file.getName().endsWith("-ptui" + OUTPUT_SUFFIX));
+        if (files == null) {
+            throw new IOException("Can't read directory: " + directory.getPath());
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    /**
+     * Returns the name of a recorded board: its file name without the output ending.
+     *
+     * @param recorded the recorded output file.
+     * @return the board's name, e.g. "clock-12-2-11".
+     */
+    private static String name(File recorded) {
+        return recorded.getName().substring(0, recorded.getName().length() - OUTPUT_SUFFIX.length());
+    }
+
+    /**
+     * Reads the command line arguments of a clock or water instance out of its recorded file's name.
+     *
+     * @param recorded the recorded output file, e.g. water-4-3-5-out.txt.
+     * @return the arguments, e.g. {4, 3, 5}.
+     */
+    private static int[] instance(File recorded) {
+        String[] parts = name(recorded).split("-");
+        int[] numbers = new int[parts.length - 1];
+        for (int i = 1; i < parts.length; i++) {
+            numbers[i - 1] = Integer.parseInt(parts[i]);
+        }
+        return numbers;
+    }
+
+    /**
+     * Solves a board on objects, and packed if there is a codec, and compares each solve with its recorded output.
+     *
+     * @param name the board's name.
+     * @param recorded the recorded output file.
+     * @param start the board.
+     * @param codec packs the puzzle's configurations, or null if it has none.
+     * @throws IOException if the recorded output can't be read.
+     */
+    private static void check(String name, File recorded, Configuration start, LongStateCodec codec) throws IOException {
+        if (!recorded.isFile()) {
+            System.out.println(name + ": skipped, nothing recorded");
+            return;
+        }
+
+        // Moves, total and unique recorded for the board
+        long[] expected = read(recorded);
+        if (RECOUNTED.containsKey(name)) {
+            expected[1] = RECOUNTED.get(name)[0];
+            expected[2] = RECOUNTED.get(name)[1];
+        }
+
+        checked++;
+        String mismatch = compare("objects", new Solver(), start, expected);
+        if (mismatch == null && codec != null) {
+            mismatch = compare("packed", new Solver(codec), start, expected);
+        }
+
+        if (mismatch == null) {
+            System.out.println(name + ": ok, " + moves(expected[0]) + ", total " + expected[1] + ", unique " + expected[2]);
+        }
+        else {
+            failures++;
+            System.out.println(name + ": FAILED, " + mismatch);
+        }
+    }
+
+    /**
+     * Solves a board and compares the solve with what was expected.
+     *
+     * @param mode how the board is solved, for the report.
+     * @param solver the solver to use.
+     * @param start the board.
+     * @param expected moves (-1 for no solution), total and unique.
+     * @return what did not match, or null if everything did.
+     */
+    private static String compare(String mode, Solver solver, Configuration start, long[] expected) {
+        solver.solve(start);
+        long moves = solver.getPath() == null ? -1 : solver.getPath().size() - 1;
+        if (moves != expected[0]) {
+            return mode + " solve found " + moves(moves) + ", expected " + moves(expected[0]);
+        }
+        if (solver.getTotalConfigs() != expected[1]) {
+            return mode + " solve generated " + solver.getTotalConfigs() + " in total, expected " + expected[1];
+        }
+        if (solver.getUniqueConfigs() != expected[2]) {
+            return mode + " solve saw " + solver.getUniqueConfigs() + " unique, expected " + expected[2];
+        }
+        return null;
+    }
+
+    /**
+     * Reads the moves and counts out of a recorded output file.
+     *
+     * @param recorded the recorded output file.
+     * @return moves (-1 for no solution), total and unique.
+     * @throws IOException if the file can't be read, or is missing a count.
+     */
+    private static long[] read(File recorded) throws IOException {
+        long moves = -1;
+        long total = -1;
+        long unique = -1;
+        for (String line : Files.readAllLines(recorded.toPath())) {
+            Matcher step = STEP.matcher(line);
+            if (step.find()) {
+                moves = Math.max(moves, Long.parseLong(step.group(1)));
+            }
+            else if (line.startsWith("Total configs: ")) {
+                total = Long.parseLong(line.substring("Total configs: ".length()).trim());
+            }
+            else if (line.startsWith("Unique configs: ")) {
+                unique = Long.parseLong(line.substring("Unique configs: ".length()).trim());
+            }
+        }
+        if (total < 0 || unique < 0) {
+            throw new IOException("No counts recorded in " + recorded.getPath());
+        }
+        return new long[] { moves, total, unique };
+    }
+
+    /**
+     * Describes a number of moves.
+     *
+     * @param moves the number of moves, or -1 for no solution.
+     * @return the description.
+     */
+    private static String moves(long moves) {
+        return moves < 0 ? "no solution" : moves + " moves";
+    }
+}
@@ -28,16 +28,12 @@ public class Clock {
             int startingHour = Integer.parseInt(args[1]);
             int endingHour = Integer.parseInt(args[2]);
             ClockConfig clock = new ClockConfig(totalHours, startingHour, endingHour);
-            if (!clock.isSolution()) {
-                clock.getNeighbors();
-            }
-
-            Solver solver = new Solver();
+            Solver solver = new Solver(new ClockCodec());
             solver.solve(clock);
 
             System.out.println("Hours: " + totalHours + ", Start: " + startingHour + ", End: " + endingHour);
-            System.out.println("Total configs: " + clock.getTotalConfigs().size());
-            System.out.println("Unique configs: " + clock.getUniqueConfigs().size());
+            System.out.println("Total configs: " + solver.getTotalConfigs());
+            System.out.println("Unique configs: " + solver.getUniqueConfigs());
 
             System.out.println("Path: " + solver.getSolutionPath());
 
@@ -0,0 +1,43 @@
+package puzzles.clock;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.LongStateCodec;
+
+/**
+ * Packs a ClockConfig into a long: the packed state is just the hour the hand is on.
+ */
+public class ClockCodec implements LongStateCodec {
+
+    /**
+     * Every hour on a clock with at least one hour fits.
+     *
+     * @param start The starting config.
+     * @return true if the clock has at least one hour, false otherwise.
+     */
+    @Override
+    public boolean fits(Configuration start) {
+        return ClockConfig.getTotalHands() >= 1;
+    }
+
+    /**
+     * Packs a config into the hour its hand is on.
+     *
+     * @param config The config to pack.
+     * @return The hour the hand is on.
+     */
+    @Override
+    public long encode(Configuration config) {
+        return ((ClockConfig) config).getCurrentHand();
+    }
+
+    /**
+     * Rebuilds the config with the hand on a packed hour.
+     *
+     * @param state The packed hour.
+     * @return The config with the hand on that hour.
+     */
+    @Override
+    public Configuration decode(long state) {
+        return new ClockConfig((int) state);
+    }
+}
@@ -1,22 +1,18 @@
 package puzzles.clock;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ReversibleConfiguration;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
- * A clock interface that holds the current hour and can create and store neighbors of the hours next to it.
- * Contains static data for the goal to eventually reach, how many hours are on the clock, the total and unique number of configs.
+ * A clock interface that holds the current hour and can create neighbors of the hours next to it.
+ * Contains static data for the goal to eventually reach and how many hours are on the clock.
  *
  * @author Aidan Sanderson
  */
-public class ClockConfig implements Configuration {
-
-    /** List of all configs created. */
-    private final static List<ClockConfig> totalConfigs = new ArrayList<>();
-
-    /** Set of all unique configs created. */
-    private final static Set<ClockConfig> uniqueConfigs = new HashSet<>();
+public class ClockConfig implements ReversibleConfiguration {
 
     /** Number of hours on the clock. */
     private static int totalHands;
@@ -27,9 +23,6 @@ public class ClockConfig implements Configuration {
     /** The current hour the clocks hand is on. */
     private final int currentHand;
 
-    /** The neighbor configs of the clock */
-    private final Collection<Configuration> neighbors;
-
     /**
      * Creates the initial clock config with the total number of hours, the starting hour, and the goal.
      *
@@ -41,9 +34,6 @@ public class ClockConfig implements Configuration {
         totalHands = totalHours;
         this.currentHand = startingHour;
         goal = goalHour;
-        this.neighbors = new ArrayList<>();
-        totalConfigs.add(this);
-        uniqueConfigs.add(this);
     }
 
     /**
@@ -53,9 +43,6 @@ public class ClockConfig implements Configuration {
      */
     public ClockConfig(int currentHand) {
         this.currentHand = currentHand;
-        this.neighbors = new ArrayList<>();
-        totalConfigs.add(this);
-        uniqueConfigs.add(this);
     }
 
     /**
@@ -69,21 +56,21 @@ public class ClockConfig implements Configuration {
 
 
     /**
-     * Gets the list of all configs.
+     * Gets the number of hours on the clock.
      *
-     * @return All configs created.
+     * @return The number of hours on the clock.
      */
-    public List<ClockConfig> getTotalConfigs() {
-        return totalConfigs;
+    public static int getTotalHands() {
+        return totalHands;
     }
 
     /**
-     * Gets the set of unique configs.
+     * Gets the hour the clock wants to reach.
      *
-     * @return  All unique configs created.
+     * @return The goal hour.
      */
-    public Set<ClockConfig> getUniqueConfigs() {
-        return uniqueConfigs;
+    public static int getGoal() {
+        return goal;
     }
 
 
@@ -137,23 +124,67 @@ public class ClockConfig implements Configuration {
      */
     @Override
     public Collection<Configuration> getNeighbors() {
-        ClockConfig backConfig;
-        ClockConfig frontConfig;
-        if (this.currentHand == 1) {
-            backConfig = new ClockConfig(totalHands);
-            frontConfig = new ClockConfig(this.currentHand + 1);
-        }
-        else if (this.currentHand == totalHands) {
-            backConfig = new ClockConfig(this.currentHand - 1);
-            frontConfig = new ClockConfig(1);
+        List<Configuration> neighbors = new ArrayList<>(2);
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    /**
+     * Hands the hour behind and the hour ahead of the current one to the action, wrapping around the clock.
+     *
+     * @param action What to do with each neighbor.
+     */
+    @Override
+    public void forEachNeighbor(Consumer<? super Configuration> action) {
+        action.accept(new ClockConfig(this.currentHand == 1 ? totalHands : this.currentHand - 1));
+        action.accept(new ClockConfig(this.currentHand == totalHands ? 1 : this.currentHand + 1));
+    }
+
+    /**
+     * Makes the hour behind (move 0) or the hour ahead (move 1) without making the other.
+     *
+     * @param move The move number, in the order forEachNeighbor hands out neighbors.
+     * @return The neighbor the move leads to.
+     */
+    @Override
+    public Configuration applyMove(int move) {
+        switch (move) {
+            case 0:
+                return new ClockConfig(this.currentHand == 1 ? totalHands : this.currentHand - 1);
+            case 1:
+                return new ClockConfig(this.currentHand == totalHands ? 1 : this.currentHand + 1);
+            default:
+                throw new NoSuchElementException("No move " + move + " on a clock");
         }
-        else {
-            backConfig = new ClockConfig(this.currentHand - 1);
-            frontConfig = new ClockConfig(this.currentHand + 1);
+    }
+
+    /**
+     * Get the collection of configs that have this config as a neighbor.
+     * Moving the hand is symmetric, so these are the same hours as the neighbors.
+     *
+     * @return All the predecessors
+     */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        List<Configuration> predecessors = new ArrayList<>();
+        predecessors.add(new ClockConfig(this.currentHand == 1 ? totalHands : this.currentHand - 1));
+        predecessors.add(new ClockConfig(this.currentHand == totalHands ? 1 : this.currentHand + 1));
+        return predecessors;
+    }
+
+    /**
+     * Get every solution config. The only solution is the hand on the goal hour,
+     * and there is none if the goal hour is not on the clock.
+     *
+     * @return All the goal configs
+     */
+    @Override
+    public Collection<Configuration> getGoals() {
+        List<Configuration> goals = new ArrayList<>();
+        if (goal >= 1 && goal <= totalHands) {
+            goals.add(new ClockConfig(goal));
         }
-        this.neighbors.add(backConfig);
-        this.neighbors.add(frontConfig);
-        return this.neighbors;
+        return goals;
     }
 
     /**
@@ -0,0 +1,27 @@
+package puzzles.clock;
+
+import puzzles.common.solver.Heuristic;
+
+/**
+ * Estimates how many moves a ClockConfig is from the goal hour: the distance around the ring,
+ * going whichever way is shorter. This is the exact number of moves, so it never overestimates.
+ */
+public class ClockHeuristic implements Heuristic<ClockConfig> {
+
+    /**
+     * Estimates the number of moves left to reach the goal hour.
+     *
+     * @param config The ClockConfig to estimate from.
+     * @return The ring distance from the current hand to the goal hour, or 0 if the goal is not on the clock.
+     */
+    @Override
+    public int estimate(ClockConfig config) {
+        int totalHands = ClockConfig.getTotalHands();
+        int goal = ClockConfig.getGoal();
+        if (goal < 1 || goal > totalHands) {
+            return 0;
+        }
+        int distance = Math.abs(config.getCurrentHand() - goal);
+        return Math.min(distance, totalHands - distance);
+    }
+}
@@ -51,14 +51,14 @@ public class Water {
             //testList.add(28);
             //testList.add(0);
             //water.testSuccessors(testList);
-            Solver solver = new Solver();
+            Solver solver = new Solver(new WaterCodec(bucketSizes));
 
 
             solver.solve(water);
 
             System.out.println("Amount: " + WaterConfig.getGoal() + ", Buckets: " + WaterConfig.getSizes());
-            System.out.println("Total configs: " + WaterConfig.getTotalConfigs().size());
-            System.out.println("Unique configs: " + WaterConfig.getUniqueConfigs().size());
+            System.out.println("Total configs: " + solver.getTotalConfigs());
+            System.out.println("Unique configs: " + solver.getUniqueConfigs());
 
             System.out.println("Path: " + solver.getSolutionPath());
 
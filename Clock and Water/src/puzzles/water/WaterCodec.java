@@ -0,0 +1,91 @@
+package puzzles.water;
+
+import puzzles.common.solver.Configuration;
+import puzzles.common.solver.LongStateCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Packs a WaterConfig into a long by giving each bucket just enough bits to hold its capacity,
+ * with the first bucket in the lowest bits. Fits as long as the buckets need 63 bits or fewer,
+ * for example four buckets that each hold less than 65536, unless every bucket full would pack
+ * to Long.MAX_VALUE, which the Solver cannot store.
+ */
+public class WaterCodec implements LongStateCodec {
+
+    /** Number of bits given to each bucket. */
+    private final int[] bits;
+
+    /** Total number of bits over all buckets. */
+    private final int totalBits;
+
+    /** Largest packed state, every bucket full; only meaningful when the buckets need 63 bits or fewer. */
+    private final long fullState;
+
+    /**
+     * Creates a codec for buckets with the given fill capacity's.
+     *
+     * @param bucketSizes The max fill capacity of every bucket.
+     */
+    public WaterCodec(List<Integer> bucketSizes) {
+        this.bits = new int[bucketSizes.size()];
+        int total = 0;
+        for (int ind = 0; ind < this.bits.length; ind++) {
+            this.bits[ind] = 32 - Integer.numberOfLeadingZeros(Math.max(bucketSizes.get(ind), 0));
+            total += this.bits[ind];
+        }
+        this.totalBits = total;
+
+        long full = 0;
+        for (int ind = this.bits.length - 1; ind >= 0; ind--) {
+            full = (full << this.bits[ind]) | Math.max(bucketSizes.get(ind), 0);
+        }
+        this.fullState = full;
+    }
+
+    /**
+     * The buckets fit if they need no more than 63 bits between them and every bucket full packs to
+     * less than Long.MAX_VALUE.
+     *
+     * @param start The starting config.
+     * @return true if every config of these buckets can be packed, false otherwise.
+     */
+    @Override
+    public boolean fits(Configuration start) {
+        return this.totalBits <= 63 && this.fullState != Long.MAX_VALUE
+                && ((WaterConfig) start).getBuckets().size() == this.bits.length;
+    }
+
+    /**
+     * Packs the bucket amounts of a config into a long.
+     *
+     * @param config The config to pack.
+     * @return The packed bucket amounts.
+     */
+    @Override
+    public long encode(Configuration config) {
+        List<Integer> buckets = ((WaterConfig) config).getBuckets();
+        long state = 0;
+        for (int ind = this.bits.length - 1; ind >= 0; ind--) {
+            state = (state << this.bits[ind]) | buckets.get(ind);
+        }
+        return state;
+    }
+
+    /**
+     * Unpacks the bucket amounts from a long into a new config.
+     *
+     * @param state The packed bucket amounts.
+     * @return The config holding those amounts.
+     */
+    @Override
+    public Configuration decode(long state) {
+        List<Integer> buckets = new ArrayList<>(this.bits.length);
+        for (int ind = 0; ind < this.bits.length; ind++) {
+            buckets.add((int) (state & ((1L << this.bits[ind]) - 1)));
+            state >>>= this.bits[ind];
+        }
+        return new WaterConfig(buckets);
+    }
+}
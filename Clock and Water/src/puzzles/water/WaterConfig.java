@@ -1,22 +1,18 @@
 package puzzles.water;
 
 import puzzles.common.solver.Configuration;
+import puzzles.common.solver.ReversibleConfiguration;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 /**
- * A WaterConfig that holds the information of buckets and how much water is in them and can create and store the neighbor configs of it.
- * Holds static data for how much each bucket can be filled to the max, the total and unique number of configs created, the goal of water in a bucket to reach.
+ * A WaterConfig that holds the information of buckets and how much water is in them and can create the neighbor configs of it.
+ * Holds static data for how much each bucket can be filled to the max and the goal of water in a bucket to reach.
  *
  * @author Aidan Sanderson
  */
-public class WaterConfig implements Configuration {
-
-    /** List of all configs created. */
-    private final static List<WaterConfig> totalConfigs = new ArrayList<>();
-
-    /** Set of all unique configs created. */
-    private final static Set<WaterConfig> uniqueConfigs = new HashSet<>();
+public class WaterConfig implements ReversibleConfiguration {
 
     /** Max fill capacity of every bucket. */
     private static List<Integer> bucketSizes = new ArrayList<>();
@@ -27,9 +23,6 @@ public class WaterConfig implements Configuration {
     /** List of how much water is currently in each bucket. */
     private List<Integer> buckets;
 
-    /** The neighbor configs of the WaterConfig. */
-    private final Collection<Configuration> neighbors;
-
     /**
      * Initial constructor for the WaterConfig. Sets the max fill capacity's of the buckets, sets the goal,
      * and initializes each bucket to start with 0 gallons of water.
@@ -44,9 +37,6 @@ public class WaterConfig implements Configuration {
         for (Integer bucket : bucketSizes) {
             this.buckets.add(0);
         }
-        this.neighbors = new ArrayList<>();
-        totalConfigs.add(this);
-        uniqueConfigs.add(this);
     }
 
     /**
@@ -59,7 +49,6 @@ public class WaterConfig implements Configuration {
     public WaterConfig(WaterConfig config, int bucketAind, int bucketBind) {
         this.buckets = new ArrayList<>();
         this.buckets.addAll(config.getBuckets());
-        this.neighbors = new ArrayList<>();
         int aFill;
         int bFill;
         int differenceB = bucketSizes.get(bucketBind) - this.buckets.get(bucketBind);
@@ -76,8 +65,6 @@ public class WaterConfig implements Configuration {
         this.buckets.add(bucketAind,aFill);
         this.buckets.remove(bucketBind);
         this.buckets.add(bucketBind,bFill);
-        totalConfigs.add(this);
-        uniqueConfigs.add(this);
 
     }
 
@@ -91,7 +78,6 @@ public class WaterConfig implements Configuration {
     public WaterConfig(WaterConfig config, int bucketInd, boolean isFill) {
         this.buckets = new ArrayList<>();
         this.buckets.addAll(config.getBuckets());
-        this.neighbors = new ArrayList<>();
         this.buckets.remove(bucketInd);
         if (isFill) {
             int maxFill = bucketSizes.get(bucketInd);
@@ -100,19 +86,17 @@ public class WaterConfig implements Configuration {
         else {
             this.buckets.add(bucketInd, 0);
         }
-        totalConfigs.add(this);
-        uniqueConfigs.add(this);
     }
 
     /**
-     * Constructor for a test config to ensure the neighbors are generated properly.
+     * Constructor for a config with given bucket amounts. Used for test configs to ensure the neighbors
+     * are generated properly, for the configs made when running steps backwards, and for unpacking packed states.
      *
      * @param testConfig List of amount in each bucket for the test config.
      */
     public WaterConfig(List<Integer> testConfig) {
         this.buckets = new ArrayList<>();
         this.buckets.addAll(testConfig);
-        this.neighbors = new ArrayList<>();
     }
 
     /**
@@ -142,24 +126,6 @@ public class WaterConfig implements Configuration {
         return this.buckets;
     }
 
-    /**
-     * Gets the list of all configs.
-     *
-     * @return All configs created.
-     */
-    public static List<WaterConfig> getTotalConfigs() {
-        return totalConfigs;
-    }
-
-    /**
-     * Gets the set of unique configs.
-     *
-     * @return All unique configs created.
-     */
-    public static Set<WaterConfig> getUniqueConfigs() {
-        return uniqueConfigs;
-    }
-
 
     /**
      * Is the current configuration a solution?
@@ -196,13 +162,25 @@ public class WaterConfig implements Configuration {
      */
     @Override
     public Collection<Configuration> getNeighbors() {
+        List<Configuration> neighbors = new ArrayList<>();
+        forEachNeighbor(neighbors::add);
+        return neighbors;
+    }
+
+    /**
+     * Hands each neighbor from a fill, dump, or pour to the action as soon as it is made.
+     *
+     * @param action What to do with each neighbor.
+     */
+    @Override
+    public void forEachNeighbor(Consumer<? super Configuration> action) {
         for (WaterStep type : WaterStep.values()) {
             switch (type) {
                 case FILL:
                     for (int ind = 0; ind < this.buckets.size(); ind++) {
                         if (this.buckets.get(ind) != bucketSizes.get(ind)) {
                             WaterConfig neighbor = new WaterConfig(this, ind, true);
-                            this.neighbors.add(neighbor);
+                            action.accept(neighbor);
                         }
                     }
                     break;
@@ -210,7 +188,7 @@ public class WaterConfig implements Configuration {
                     for (int ind = 0; ind < this.buckets.size(); ind++) {
                         if (this.buckets.get(ind) != 0) {
                             WaterConfig neighbor = new WaterConfig(this, ind, false);
-                            this.neighbors.add(neighbor);
+                            action.accept(neighbor);
                         }
                     }
                     break;
@@ -219,14 +197,190 @@ public class WaterConfig implements Configuration {
                         for (int b = 0; b < this.buckets.size(); b++) {
                             if (a != b && this.buckets.get(a) != 0 && this.buckets.get(b) != bucketSizes.get(b)) {
                                 WaterConfig neighbor = new WaterConfig(this, a, b);
-                                this.neighbors.add(neighbor);
+                                action.accept(neighbor);
+                            }
+                        }
+                    }
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Makes the neighbor for one move, counting through the same fills, dumps, and pours as
+     * forEachNeighbor, in the same order, but only making the one that is asked for.
+     *
+     * @param move The move number, in the order forEachNeighbor hands out neighbors.
+     * @return The neighbor the move leads to.
+     */
+    @Override
+    public Configuration applyMove(int move) {
+        for (int ind = 0; ind < this.buckets.size(); ind++) {
+            if (this.buckets.get(ind) != bucketSizes.get(ind) && move-- == 0) {
+                return new WaterConfig(this, ind, true);
+            }
+        }
+        for (int ind = 0; ind < this.buckets.size(); ind++) {
+            if (this.buckets.get(ind) != 0 && move-- == 0) {
+                return new WaterConfig(this, ind, false);
+            }
+        }
+        for (int a = 0; a < this.buckets.size(); a++) {
+            for (int b = 0; b < this.buckets.size(); b++) {
+                if (a != b && this.buckets.get(a) != 0 && this.buckets.get(b) != bucketSizes.get(b) && move-- == 0) {
+                    return new WaterConfig(this, a, b);
+                }
+            }
+        }
+        throw new NoSuchElementException("No such move for " + this);
+    }
+
+    /**
+     * Get the collection of configs that have this config as a neighbor, by undoing each WaterStep.
+     * Un-filling a full bucket gives back every amount it could have held before the fill, un-dumping
+     * an empty bucket gives back every amount it could have held before the dump, and un-pouring splits
+     * the two buckets' combined water every way the pour could have started from.
+     *
+     * @return All the predecessors
+     */
+    @Override
+    public Collection<Configuration> getPredecessors() {
+        Set<Configuration> predecessors = new LinkedHashSet<>();
+        int size = this.buckets.size();
+        for (WaterStep type : WaterStep.values()) {
+            switch (type) {
+                case FILL:
+                    for (int ind = 0; ind < size; ind++) {
+                        int max = bucketSizes.get(ind);
+                        if (this.buckets.get(ind) == max) {
+                            for (int before = 0; before < max; before++) {
+                                predecessors.add(withAmounts(ind, before, -1, 0));
+                            }
+                        }
+                    }
+                    break;
+                case DUMP:
+                    for (int ind = 0; ind < size; ind++) {
+                        if (this.buckets.get(ind) == 0) {
+                            for (int before = 1; before <= bucketSizes.get(ind); before++) {
+                                predecessors.add(withAmounts(ind, before, -1, 0));
+                            }
+                        }
+                    }
+                    break;
+                case POUR:
+                    for (int a = 0; a < size; a++) {
+                        for (int b = 0; b < size; b++) {
+                            if (a == b) {
+                                continue;
+                            }
+                            int aNow = this.buckets.get(a);
+                            int bNow = this.buckets.get(b);
+                            int aMax = bucketSizes.get(a);
+                            int bMax = bucketSizes.get(b);
+                            int total = aNow + bNow;
+                            if (aNow == 0) {
+                                // All of a fit into b: a held anywhere from 1 to all of the total
+                                for (int aBefore = Math.max(1, total - bMax + 1); aBefore <= Math.min(total, aMax); aBefore++) {
+                                    predecessors.add(withAmounts(a, aBefore, b, total - aBefore));
+                                }
+                            }
+                            else if (bNow == bMax) {
+                                // b filled up with some left in a: b held anywhere below full
+                                for (int bBefore = Math.max(0, total - aMax); bBefore < bMax; bBefore++) {
+                                    predecessors.add(withAmounts(a, total - bBefore, b, bBefore));
+                                }
                             }
                         }
                     }
                     break;
             }
         }
-        return this.neighbors;
+        return predecessors;
+    }
+
+    /**
+     * Get every solution config the forward search could reach. A solution has the goal amount in some
+     * bucket. Every config reachable by a WaterStep also has at least one bucket empty or full (a fill
+     * or pour leaves one full, a dump or pour leaves one empty), so only those configs are listed.
+     * The number of goals grows with the product of the other buckets' capacities, so this is meant
+     * for instances with small buckets.
+     *
+     * @return All the goal configs
+     */
+    @Override
+    public Collection<Configuration> getGoals() {
+        Set<Configuration> goals = new LinkedHashSet<>();
+        int size = this.buckets.size();
+        for (int ind = 0; ind < size; ind++) {
+            if (goal > bucketSizes.get(ind)) {
+                continue;
+            }
+            int[] amounts = new int[size];
+            amounts[ind] = goal;
+            if (goal == 0 || goal == bucketSizes.get(ind)) {
+                // The goal bucket is already empty or full, every other bucket is free
+                addGoals(goals, amounts, 0, ind, -1);
+            }
+            else {
+                // Some other bucket has to be empty or full
+                for (int edge = 0; edge < size; edge++) {
+                    if (edge != ind) {
+                        amounts[edge] = 0;
+                        addGoals(goals, amounts, 0, ind, edge);
+                        amounts[edge] = bucketSizes.get(edge);
+                        addGoals(goals, amounts, 0, ind, edge);
+                    }
+                }
+            }
+        }
+        return goals;
+    }
+
+    /**
+     * Recursively fills in every amount for the free buckets and adds each finished config to goals.
+     *
+     * @param goals The set of goal configs to add to.
+     * @param amounts The bucket amounts being built.
+     * @param ind The next bucket to fill in.
+     * @param fixedA Index of a bucket whose amount is already set.
+     * @param fixedB Index of another bucket whose amount is already set, or -1.
+     */
+    private void addGoals(Set<Configuration> goals, int[] amounts, int ind, int fixedA, int fixedB) {
+        if (ind == amounts.length) {
+            List<Integer> goalBuckets = new ArrayList<>();
+            for (int amount : amounts) {
+                goalBuckets.add(amount);
+            }
+            goals.add(new WaterConfig(goalBuckets));
+        }
+        else if (ind == fixedA || ind == fixedB) {
+            addGoals(goals, amounts, ind + 1, fixedA, fixedB);
+        }
+        else {
+            for (int amount = 0; amount <= bucketSizes.get(ind); amount++) {
+                amounts[ind] = amount;
+                addGoals(goals, amounts, ind + 1, fixedA, fixedB);
+            }
+        }
+    }
+
+    /**
+     * Makes a copy of this config with up to two buckets changed.
+     *
+     * @param indA Index of the first bucket to change.
+     * @param amountA New amount for the first bucket.
+     * @param indB Index of the second bucket to change, or -1 to only change one.
+     * @param amountB New amount for the second bucket.
+     * @return The new config.
+     */
+    private WaterConfig withAmounts(int indA, int amountA, int indB, int amountB) {
+        List<Integer> amounts = new ArrayList<>(this.buckets);
+        amounts.set(indA, amountA);
+        if (indB >= 0) {
+            amounts.set(indB, amountB);
+        }
+        return new WaterConfig(amounts);
     }
 
     /**
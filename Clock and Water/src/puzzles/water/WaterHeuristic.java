@@ -0,0 +1,58 @@
+package puzzles.water;
+
+import puzzles.common.solver.Heuristic;
+
+import java.util.List;
+
+/**
+ * Estimates how many steps a WaterConfig is from having the goal amount in some bucket.
+ * Checks whether a single fill, dump or pour could produce the goal amount. If none can, at least two steps are left.
+ * That never overestimates, and it only looks at the amounts, so it does not create any configs.
+ */
+public class WaterHeuristic implements Heuristic<WaterConfig> {
+
+    /**
+     * Estimates the number of steps left to reach the goal amount.
+     *
+     * @param config The WaterConfig to estimate from.
+     * @return 0 if solved, 1 if one step could solve it, 2 otherwise.
+     */
+    @Override
+    public int estimate(WaterConfig config) {
+        if (config.isSolution()) {
+            return 0;
+        }
+        int goal = WaterConfig.getGoal();
+        List<Integer> sizes = WaterConfig.getSizes();
+        List<Integer> buckets = config.getBuckets();
+        int size = buckets.size();
+
+        // Can a dump produce the goal?
+        if (goal == 0) {
+            return 1;
+        }
+
+        // Can a fill produce the goal?
+        for (int ind = 0; ind < size; ind++) {
+            if (sizes.get(ind) == goal) {
+                return 1;
+            }
+        }
+
+        // Can a pour produce the goal in either bucket?
+        for (int a = 0; a < size; a++) {
+            int aAmount = buckets.get(a);
+            for (int b = 0; b < size; b++) {
+                if (a != b) {
+                    int bMax = sizes.get(b);
+                    int poured = Math.min(aAmount, bMax - buckets.get(b));
+                    if (aAmount - poured == goal || buckets.get(b) + poured == goal) {
+                        return 1;
+                    }
+                }
+            }
+        }
+
+        return 2;
+    }
+}
@@ -0,0 +1,264 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * Best-first (A*) Solver guided by a Heuristic.
+ * Configurations are interned into integer IDs, and the open list is an IndexedMinHeap keyed on
+ * f = g + weight * h, so a cheaper route to a queued configuration lowers its key in place.
+ * Ties on f go to the configuration with the smaller h (the one that looks closer to a solution).
+ *
+ * With a weight of 1 and an admissible heuristic, the path found is a shortest path.
+ * A weight above 1 trusts the heuristic more, which usually expands far fewer configurations
+ * but may return a path up to weight times longer than the shortest one.
+ *
+ * @param <C> the kind of configuration this solver works with.
+ */
+public class AStarSolver<C extends Configuration> implements PathSolver {
+
+    /** Fields */
+    // Estimate of moves left from a configuration
+    private final Heuristic<C> heuristic;
+
+    // How much the heuristic is trusted (1 keeps the shortest-path guarantee)
+    private final double weight;
+
+    // Every configuration seen, with its predecessor
+    private final ConfigurationTable table;
+
+    // Open list of IDs ordered by f, then h
+    private final IndexedMinHeap open;
+
+    // Best known number of moves from the start to each ID
+    private int[] costs;
+
+    // Starting configuration
+    private C start;
+
+    // Number of configurations generated
+    private long totalConfigs;
+
+    // Number of configurations taken off the open list and expanded
+    private long expandedConfigs;
+
+    // How the last solve ended, or null if solve() has not been called yet
+    private SolveResult result;
+
+    // Path to the solution, if it exists
+    private LinkedList<Configuration> path;
+
+
+    /**
+     * Constructor for plain A*.
+     *
+     * @param heuristic the estimate of moves left from a configuration.
+     */
+    public AStarSolver(Heuristic<C> heuristic) {
+        this(heuristic, 1.0);
+    }
+
+    /**
+     * Constructor for weighted A*.
+     *
+     * @param heuristic the estimate of moves left from a configuration.
+     * @param weight how much the heuristic is trusted; 1 for shortest paths, more for speed.
+     */
+    public AStarSolver(Heuristic<C> heuristic, double weight) {
+        if (weight < 1.0) {
+            throw new IllegalArgumentException("Weight must be at least 1: " + weight);
+        }
+        this.heuristic = heuristic;
+        this.weight = weight;
+        this.table = new ConfigurationTable(false);
+        this.open = new IndexedMinHeap();
+        this.costs = new int[64];
+        this.totalConfigs = 0;
+        this.expandedConfigs = 0;
+        this.path = null;
+    }
+
+    /**
+     * Performs A* from the start Configuration until a solution is taken off the open list.
+     * Also builds the path from start to finish if such a path is possible.
+     *
+     * @param start the starting Configuration to solve from.
+     */
+    public void solve(C start) {
+        solve(start, SolveLimits.NONE, null);
+    }
+
+    /**
+     * Performs A* within some limits, stopping early if the token is cancelled.
+     * If the solve is aborted there is no path, but the counters still describe the work done.
+     *
+     * @param start the starting Configuration to solve from.
+     * @param limits when to give up.
+     * @param token lets another thread stop the solve, or null for none.
+     * @return how the solve ended.
+     */
+    @SuppressWarnings("unchecked")
+    public SolveResult solve(C start, SolveLimits limits, CancellationToken token) {
+        LimitChecker limitChecker = new LimitChecker(limits, token);
+        this.result = null;
+        this.start = start;
+        this.table.clear();
+        this.open.clear();
+        this.totalConfigs = 1;
+        this.expandedConfigs = 0;
+
+        // The start costs nothing to reach
+        int startId = this.table.add(start, ConfigurationTable.NO_PARENT);
+        setCost(startId, 0);
+        this.open.offer(startId, key(0, start));
+
+        int goalId = -1;
+        while (!this.open.isEmpty()) {
+            int currentId = this.open.poll();
+            C current = (C) this.table.get(currentId);
+
+            // A solution coming off the open list is reached as cheaply as possible
+            if (current.isSolution()) {
+                goalId = currentId;
+                break;
+            }
+
+            // Give up if a limit was reached or the solve was cancelled
+            if ((this.result = limitChecker.check(this.expandedConfigs)) != null) {
+                break;
+            }
+            this.expandedConfigs++;
+
+            // Visit each of its neighbors as it is generated
+            int nextCost = this.costs[currentId] + 1;
+            current.forEachNeighbor(neighbor -> visit(currentId, nextCost, neighbor));
+        }
+
+        buildPath(goalId);
+        if (this.result == null) {
+            this.result = this.path != null ? SolveResult.SOLVED : SolveResult.UNSOLVABLE;
+        }
+        return this.result;
+    }
+
+    /**
+     * Records one neighbor of the configuration being expanded: opens it if it is new, or re-parents
+     * and reopens it if this route reaches it more cheaply, and counts it towards the total configurations.
+     *
+     * @param currentId the ID of the configuration being expanded.
+     * @param nextCost the number of moves from the start to the neighbor through it.
+     * @param neighbor one of its neighbors.
+     */
+    @SuppressWarnings("unchecked")
+    private void visit(int currentId, int nextCost, Configuration neighbor) {
+        this.totalConfigs++;
+
+        int id = this.table.add(neighbor, currentId);
+        if (id >= 0) {
+            // First time seen
+            setCost(id, nextCost);
+            this.open.offer(id, key(nextCost, (C) neighbor));
+        }
+        else {
+            id = -id - 1;
+            // Seen before, but this route is cheaper: re-parent it and (re)open it
+            if (nextCost < this.costs[id]) {
+                this.table.setParent(id, currentId);
+                this.costs[id] = nextCost;
+                this.open.offer(id, key(nextCost, (C) this.table.get(id)));
+            }
+        }
+    }
+
+    /**
+     * Builds the open-list key of a configuration: f in the high half, h in the low half.
+     *
+     * @param cost the number of moves from the start to the configuration.
+     * @param config the configuration.
+     * @return the key.
+     */
+    private long key(int cost, C config) {
+        int estimate = this.heuristic.estimate(config);
+        long f = cost + (long) Math.ceil(this.weight * estimate);
+        return (f << 32) | estimate;
+    }
+
+    /**
+     * Records the best known cost of an ID, growing the cost array if needed.
+     *
+     * @param id the ID.
+     * @param cost its cost.
+     */
+    private void setCost(int id, int cost) {
+        if (id >= this.costs.length) {
+            this.costs = Arrays.copyOf(this.costs, Math.max(this.costs.length << 1, id + 1));
+        }
+        this.costs[id] = cost;
+    }
+
+    /**
+     * Builds the path between the start configuration and the solution configuration
+     * by following predecessor IDs back from the goal.
+     *
+     * @param goalId the ID of the solution, or -1 if there was none.
+     */
+    private void buildPath(int goalId) {
+        LinkedList<Configuration> path = null;
+        if (goalId >= 0) {
+            path = new LinkedList<>();
+            for (int id = goalId; id != ConfigurationTable.NO_PARENT; id = this.table.getParent(id)) {
+                path.addFirst(this.table.get(id));
+            }
+        }
+        this.path = path;
+    }
+
+    /**
+     * Returns the total number of configurations generated.
+     *
+     * @return the total number of configurations seen
+     * in the course of generating the solution.
+     */
+    public long getTotalConfigs() {
+        return this.totalConfigs;
+    }
+
+    /**
+     * Returns the number of unique configurations seen.
+     *
+     * @return the (integer) number of unique configurations seen
+     * in the course of generating the solution.
+     */
+    public int getUniqueConfigs() {
+        return this.table.size();
+    }
+
+    /**
+     * Returns the number of configurations that were expanded (had their neighbors generated).
+     *
+     * @return the number of configurations expanded.
+     */
+    public long getExpandedConfigs() {
+        return this.expandedConfigs;
+    }
+
+    /**
+     * Returns how the last solve ended.
+     *
+     * @return the result, or null if solve() has not been called yet.
+     */
+    public SolveResult getResult() {
+        return this.result;
+    }
+
+    /**
+     * Method that returns the path from start configuration to end configuration as a LinkedList.
+     * Note that it is possible to get null as a result from this method if there is not a path
+     * from the start configuration to the end configuration or if solve() has not been called yet.
+     *
+     * @return the path to the solution if it exists, else returns null.
+     */
+    public LinkedList<Configuration> getPath() {
+        return this.path;
+    }
+}
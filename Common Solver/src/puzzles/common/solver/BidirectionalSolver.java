@@ -0,0 +1,250 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+
+/**
+ * BFS Solver that searches from both ends and meets in the middle.
+ * One search runs forward from the start with getNeighbors(), the other runs backward from
+ * every goal with getPredecessors(). Whole BFS layers are expanded at a time, always on the side
+ * with the smaller frontier, and the search stops after the first layer in which the two sides touch.
+ * The cheapest meeting point found in that layer gives a shortest path.
+ */
+public class BidirectionalSolver implements PathSolver {
+
+    /**
+     * One direction of the search. States are interned in BFS order, so every layer is a
+     * contiguous range of IDs and the frontier is simply the last layer's range.
+     */
+    private static class Side {
+        // Every state seen from this side; the parent of a state is one step closer to this side's roots
+        private final ConfigurationTable table = new ConfigurationTable(false);
+
+        // First ID of each BFS layer (layerStarts[d] is the first ID at depth d)
+        private int[] layerStarts = new int[16];
+
+        // Number of layers started so far (layer 0 holds the roots)
+        private int layers = 1;
+
+        /**
+         * Interns a root state (depth 0).
+         *
+         * @param root the state to add.
+         */
+        private void addRoot(Configuration root) {
+            this.table.add(root, ConfigurationTable.NO_PARENT);
+        }
+
+        /** Marks the current end of the table as the start of the next layer */
+        private void startLayer() {
+            if (this.layers == this.layerStarts.length) {
+                this.layerStarts = Arrays.copyOf(this.layerStarts, this.layers << 1);
+            }
+            this.layerStarts[this.layers++] = this.table.size();
+        }
+
+        /** Accessor for the first ID of the frontier (the last layer) */
+        private int frontierStart() {
+            return this.layerStarts[this.layers - 1];
+        }
+
+        /** Accessor for the number of states in the frontier */
+        private int frontierSize() {
+            return this.table.size() - frontierStart();
+        }
+
+        /**
+         * Finds the BFS depth of a state from this side's roots.
+         *
+         * @param id the ID of the state.
+         * @return its depth.
+         */
+        private int depthOf(int id) {
+            // Find the last layer that starts at or before id
+            int index = Arrays.binarySearch(this.layerStarts, 0, this.layers, id);
+            if (index < 0) {
+                index = -index - 2;
+            }
+            else {
+                // Empty layers share a start, so skip forward to the last one with this start
+                while (index + 1 < this.layers && this.layerStarts[index + 1] == id) {
+                    index++;
+                }
+            }
+            return index;
+        }
+    }
+
+    /** Fields */
+    // Starting configuration
+    private Configuration start;
+
+    // Number of configurations generated, both directions combined
+    private long totalConfigs;
+
+    // Number of unique configurations seen, both directions combined
+    private long uniqueConfigs;
+
+    // Path to the solution, if it exists
+    private LinkedList<Configuration> path;
+
+    // Best meeting point found so far: its ID on each side and the path length through it
+    private int bestForwardId;
+    private int bestBackwardId;
+    private int bestLength;
+
+
+    /** Constructor */
+    public BidirectionalSolver() {
+        // No configurations seen yet
+        this.totalConfigs = 0;
+        this.uniqueConfigs = 0;
+
+        // No path to a solution exists yet
+        this.path = null;
+    }
+
+    /**
+     * Performs bidirectional BFS from the start Configuration towards its goals.
+     * Also builds the shortest path from start to finish if such a path is possible.
+     *
+     * @param start the starting Configuration to solve from.
+     */
+    public void solve(ReversibleConfiguration start) {
+        this.start = start;
+        this.path = null;
+        this.totalConfigs = 1;
+        this.bestLength = Integer.MAX_VALUE;
+
+        // A start that is already solved needs no search
+        if (start.isSolution()) {
+            this.uniqueConfigs = 1;
+            this.path = new LinkedList<>();
+            this.path.add(start);
+            return;
+        }
+
+        // Seed the forward side with the start and the backward side with every goal
+        Side forward = new Side();
+        Side backward = new Side();
+        forward.addRoot(start);
+        for (Configuration goal : start.getGoals()) {
+            backward.addRoot(goal);
+            this.totalConfigs++;
+        }
+
+        // Keep going while both sides still have something to expand
+        while (forward.frontierSize() > 0 && backward.frontierSize() > 0) {
+            // Expand a whole layer of whichever side is cheaper to expand
+            if (forward.frontierSize() <= backward.frontierSize()) {
+                expandLayer(forward, backward, true);
+            }
+            else {
+                expandLayer(backward, forward, false);
+            }
+
+            // Any meeting in this layer means the best one is a shortest path
+            if (this.bestLength != Integer.MAX_VALUE) {
+                buildPath(forward, backward);
+                break;
+            }
+        }
+
+        this.uniqueConfigs = (long) forward.table.size() + backward.table.size();
+    }
+
+    /**
+     * Expands every state in a side's frontier, recording any state the other side has already seen.
+     *
+     * @param side the side to expand.
+     * @param other the opposite side.
+     * @param isForward true if side searches forward (neighbors), false if backward (predecessors).
+     */
+    private void expandLayer(Side side, Side other, boolean isForward) {
+        int from = side.frontierStart();
+        int to = side.table.size();
+        side.startLayer();
+
+        for (int id = from; id < to; id++) {
+            ReversibleConfiguration current = (ReversibleConfiguration) side.table.get(id);
+
+            // Walk forward through neighbors or backward through predecessors
+            for (Configuration next : isForward ? current.getNeighbors() : current.getPredecessors()) {
+                this.totalConfigs++;
+
+                // Intern it on this side, keeping whichever ID it already had
+                int nextId = side.table.add(next, id);
+                if (nextId < 0) {
+                    nextId = -nextId - 1;
+                }
+
+                // If the other side has seen it, the two searches meet here
+                int otherId = other.table.find(next);
+                if (otherId >= 0) {
+                    int length = side.depthOf(nextId) + other.depthOf(otherId);
+                    if (length < this.bestLength) {
+                        this.bestLength = length;
+                        this.bestForwardId = isForward ? nextId : otherId;
+                        this.bestBackwardId = isForward ? otherId : nextId;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Builds the path through the best meeting point: the forward chain from the start to the
+     * meeting point, then the backward chain from the meeting point to a goal.
+     *
+     * @param forward the forward side.
+     * @param backward the backward side.
+     */
+    private void buildPath(Side forward, Side backward) {
+        LinkedList<Configuration> path = new LinkedList<>();
+
+        // Start to meeting point (inclusive), built back to front
+        for (int id = this.bestForwardId; id != ConfigurationTable.NO_PARENT; id = forward.table.getParent(id)) {
+            path.addFirst(forward.table.get(id));
+        }
+
+        // Meeting point (exclusive) to goal, where each backward parent is the next step forward
+        for (int id = backward.table.getParent(this.bestBackwardId); id != ConfigurationTable.NO_PARENT;
+             id = backward.table.getParent(id)) {
+            path.addLast(backward.table.get(id));
+        }
+
+        this.path = path;
+    }
+
+    /**
+     * Returns the total number of configurations generated in both directions.
+     *
+     * @return the total number of configurations seen
+     * in the course of generating the solution.
+     */
+    public long getTotalConfigs() {
+        return this.totalConfigs;
+    }
+
+    /**
+     * Returns the number of unique configurations seen in both directions.
+     * A configuration seen by both searches is counted once per direction.
+     *
+     * @return the number of unique configurations seen
+     * in the course of generating the solution.
+     */
+    public long getUniqueConfigs() {
+        return this.uniqueConfigs;
+    }
+
+    /**
+     * Method that returns the path from start configuration to end configuration as a LinkedList.
+     * Note that it is possible to get null as a result from this method if there is not a path
+     * from the start configuration to the end configuration or if solve() has not been called yet.
+     *
+     * @return the path to the solution if it exists, else returns null.
+     */
+    public LinkedList<Configuration> getPath() {
+        return this.path;
+    }
+}
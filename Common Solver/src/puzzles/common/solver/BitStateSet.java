@@ -0,0 +1,133 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * A SPIN-style bitstate set: each configuration sets a few bits in a fixed-size bit array, picked
+ * by hashing it several ways. A configuration counts as seen if all of its bits are set, so a new
+ * configuration can be wrongly taken for a seen one, but a seen one is never taken for a new one.
+ * Memory is fixed up front and never grows, however many configurations are added.
+ *
+ * Configurations are hashed to 64 bits from their toString(), since the puzzles' 32-bit hashCode()
+ * values collide far too often (a few thousand distinct values over tens of thousands of chess boards).
+ * When a LongStateCodec is available, hashing the packed state is both cheaper and exact.
+ */
+public class BitStateSet {
+
+    /** Constants */
+    // log2 of the number of bits when none is given (2^27 bits is 16 MiB)
+    public static final int DEFAULT_LOG2_BITS = 27;
+
+    // Number of bits set per configuration when none is given
+    public static final int DEFAULT_HASHES = 3;
+
+    /** Fields */
+    // The bits, 64 to a word
+    private final long[] words;
+
+    // Mask to turn a hash into a bit index
+    private final long mask;
+
+    // Number of bits set per configuration
+    private final int hashes;
+
+    // Number of bits currently set
+    private long bitsSet;
+
+
+    /** Constructor */
+    public BitStateSet() {
+        this(DEFAULT_LOG2_BITS, DEFAULT_HASHES);
+    }
+
+    /**
+     * Constructor with a size and number of hashes.
+     *
+     * @param log2Bits log2 of the number of bits, from 6 (one word) to 36 (8 GiB).
+     * @param hashes the number of bits set per configuration, at least 1.
+     */
+    public BitStateSet(int log2Bits, int hashes) {
+        if (log2Bits < 6 || log2Bits > 36 || hashes < 1) {
+            throw new IllegalArgumentException("Bad bitstate size 2^" + log2Bits + " with " + hashes + " hashes");
+        }
+        this.words = new long[1 << (log2Bits - 6)];
+        this.mask = (1L << log2Bits) - 1;
+        this.hashes = hashes;
+        this.bitsSet = 0;
+    }
+
+    /**
+     * Sets the bits for a configuration and reports whether they were all set already.
+     *
+     * @param config the configuration to add.
+     * @return true if the configuration was (probably) new, false if it was already seen
+     * or collides with configurations already seen.
+     */
+    public boolean add(Configuration config) {
+        // 64-bit FNV-1a over the string form
+        String text = config.toString();
+        long key = 0xCBF29CE484222325L;
+        for (int i = 0; i < text.length(); i++) {
+            key = (key ^ text.charAt(i)) * 0x100000001B3L;
+        }
+        return add(key);
+    }
+
+    /**
+     * Sets the bits for a 64-bit key, such as a packed state, and reports whether they were all set already.
+     *
+     * @param key the key to add.
+     * @return true if the key was (probably) new, false if it was already seen
+     * or collides with keys already seen.
+     */
+    public boolean add(long key) {
+        // Double hashing: bit i is h1 + i * h2, with h2 odd so every bit can be reached
+        long h = (key ^ (key >>> 31)) * 0x9E3779B97F4A7C15L;
+        long h1 = h ^ (h >>> 29);
+        long h2 = ((h >>> 32 ^ h) * 0xC2B2AE3D27D4EB4FL) | 1;
+
+        boolean added = false;
+        for (int i = 0; i < this.hashes; i++) {
+            long bit = (h1 + i * h2) & this.mask;
+            int word = (int) (bit >>> 6);
+            long flag = 1L << bit;
+            if ((this.words[word] & flag) == 0) {
+                this.words[word] |= flag;
+                this.bitsSet++;
+                added = true;
+            }
+        }
+        return added;
+    }
+
+    /** Clears every bit, so the set can be reused for another search */
+    public void clear() {
+        Arrays.fill(this.words, 0);
+        this.bitsSet = 0;
+    }
+
+    /** Accessor for the fraction of bits set */
+    public double getFillRatio() {
+        return (double) this.bitsSet / (this.mask + 1);
+    }
+
+    /**
+     * Returns the chance that a configuration never added would now be taken for a seen one:
+     * the fill ratio to the power of the number of hashes.
+     *
+     * @return the false-positive probability at the current fill.
+     */
+    public double getFalsePositiveProbability() {
+        return Math.pow(getFillRatio(), this.hashes);
+    }
+
+    /** Accessor for the number of bits set per configuration */
+    public int getHashes() {
+        return this.hashes;
+    }
+
+    /** Accessor for the number of bytes the bits take up */
+    public long bytes() {
+        return (long) this.words.length << 3;
+    }
+}
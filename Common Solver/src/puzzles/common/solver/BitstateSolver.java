@@ -0,0 +1,319 @@
+package puzzles.common.solver;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * Approximate BFS Solver for state spaces too big to remember exactly.
+ *
+ * Visited configurations go into a fixed-size BitStateSet instead of a predecessor map, so memory
+ * for the visited set never grows. The catch is that a new configuration can collide with ones already
+ * seen and be skipped, so part of the space may be missed. A path that is found is always a real path
+ * (and a shortest one among the configurations that were not missed), but "No solution" only means no
+ * solution was found. getOmissionProbability() and getEstimatedOmissions() say how far to trust that.
+ *
+ * Paths are recovered from a compact trail: for every configuration queued, the trail keeps the trail
+ * index of its parent (an int) and the number of the move that reached it (a short). The path is rebuilt
+ * by replaying those moves from the start with applyMove, so neighbors must always come out in the same order.
+ *
+ * Configurations are hashed on their toString() unless a LongStateCodec is given, so distinct
+ * configurations must print differently. With a codec the queue also holds packed states in a
+ * PackedFrontier, and configurations are only unpacked when they are dequeued. The omission estimates only cover collisions in the bit array.
+ */
+public class BitstateSolver implements PathSolver {
+
+    /** Constants */
+    // Trail index of the start's parent
+    private static final int NO_PARENT = -1;
+
+    // Largest move number a trail entry can hold (moves are stored as unsigned shorts)
+    private static final int MAX_MOVE = 0xFFFF;
+
+    /** Fields */
+    // Bits standing in for every configuration visited
+    private final BitStateSet visited;
+
+    // Packs configurations into longs to hash on, or null to hash on toString()
+    private final LongStateCodec codec;
+
+    // Whether the current solve hashes packed states
+    private boolean packed;
+
+    // Queue of configurations to visit when they are not packed
+    private final ArrayDeque<Configuration> queue;
+
+    // Queue of configurations to visit, kept as packed states, or null if there is no codec
+    private final PackedFrontier packedQueue;
+
+    // Trail index of each queued configuration, in the same order as the queue
+    private final IntQueue queueTrail;
+
+    // Trail index of each configuration's parent, by trail index
+    private int[] trailParents;
+
+    // Number of the move from the parent that reached each configuration, by trail index
+    private short[] trailMoves;
+
+    // Number of entries in the trail (the number of configurations queued)
+    private int trailSize;
+
+    // Starting configuration
+    private Configuration start;
+
+    // Number of configurations generated
+    private long totalConfigs;
+
+    // Expected number of new configurations skipped because their bits were already set
+    private double estimatedOmissions;
+
+    // Path to the solution, if it exists
+    private LinkedList<Configuration> path;
+
+
+    /** Constructor with the default bitstate size */
+    public BitstateSolver() {
+        this(new BitStateSet(), null);
+    }
+
+    /**
+     * Constructor with a bitstate size.
+     *
+     * @param log2Bits log2 of the number of bits to spend on visited configurations.
+     * @param hashes the number of bits set per configuration.
+     */
+    public BitstateSolver(int log2Bits, int hashes) {
+        this(new BitStateSet(log2Bits, hashes), null);
+    }
+
+    /**
+     * Constructor with the bitstate set to use and a codec to hash packed states with.
+     *
+     * @param visited the bitstate set to use, cleared at the start of every solve.
+     * @param codec packs configurations into longs, or null to hash on toString().
+     */
+    public BitstateSolver(BitStateSet visited, LongStateCodec codec) {
+        this.visited = visited;
+        this.codec = codec;
+        this.packed = false;
+        this.queue = new ArrayDeque<>();
+        this.packedQueue = codec != null ? new PackedFrontier(codec) : null;
+        this.queueTrail = new IntQueue();
+        this.trailParents = new int[16];
+        this.trailMoves = new short[16];
+        this.trailSize = 0;
+        this.totalConfigs = 0;
+        this.estimatedOmissions = 0;
+        this.path = null;
+    }
+
+    /**
+     * Performs BFS, remembering visited configurations only as bits.
+     * Also builds the path from start to finish if a solution is found.
+     *
+     * @param start the starting Configuration to solve from.
+     */
+    public void solve(Configuration start) {
+        // Forget everything from the last solve
+        this.visited.clear();
+        this.queue.clear();
+        if (this.packedQueue != null) {
+            this.packedQueue.clear();
+        }
+        this.queueTrail.clear();
+        this.trailSize = 0;
+        this.totalConfigs = 0;
+        this.estimatedOmissions = 0;
+        this.path = null;
+
+        this.start = start;
+        this.packed = this.codec != null && this.codec.fits(start);
+        add(start);
+        enqueue(start);
+        this.queueTrail.add(record(NO_PARENT, 0));
+        this.totalConfigs++;
+
+        // Trail index of the solution, if one is found
+        int goalIndex = -1;
+
+        while (!this.queueTrail.isEmpty()) {
+            Configuration current = dequeue();
+            int currentIndex = this.queueTrail.poll();
+
+            if (current.isSolution()) {
+                goalIndex = currentIndex;
+                break;
+            }
+
+            int move = 0;
+            for (Iterator<Configuration> it = current.neighborIterator(); it.hasNext(); move++) {
+                Configuration neighbor = it.next();
+                this.totalConfigs++;
+
+                // The chance this add wrongly finds every bit set, taken before the add changes the fill
+                double missChance = this.visited.getFalsePositiveProbability();
+                if (add(neighbor)) {
+                    this.estimatedOmissions += missChance;
+                    enqueue(neighbor);
+                    this.queueTrail.add(record(currentIndex, move));
+                }
+            }
+        }
+
+        this.queue.clear();
+        if (this.packedQueue != null) {
+            this.packedQueue.clear();
+        }
+        this.queueTrail.clear();
+        buildPath(goalIndex);
+    }
+
+    /**
+     * Adds a configuration to the back of the queue, packed if the solve is packed.
+     *
+     * @param config the configuration to enqueue.
+     */
+    private void enqueue(Configuration config) {
+        if (this.packed) {
+            this.packedQueue.add(config);
+        } else {
+            this.queue.add(config);
+        }
+    }
+
+    /**
+     * Removes the configuration at the front of the queue, unpacking it if the solve is packed.
+     *
+     * @return the configuration at the front of the queue.
+     */
+    private Configuration dequeue() {
+        return this.packed ? this.packedQueue.poll() : this.queue.poll();
+    }
+
+    /**
+     * Sets the bits for a configuration, hashing its packed state when there is a codec.
+     *
+     * @param config the configuration to add.
+     * @return true if the configuration was (probably) new, false otherwise.
+     */
+    private boolean add(Configuration config) {
+        return this.packed ? this.visited.add(this.codec.encode(config)) : this.visited.add(config);
+    }
+
+    /**
+     * Appends an entry to the trail.
+     *
+     * @param parent the trail index of the parent.
+     * @param move the number of the move from the parent that reached this entry.
+     * @return the trail index of the new entry.
+     * @throws IllegalStateException if the move number does not fit in a trail entry.
+     */
+    private int record(int parent, int move) {
+        if (move > MAX_MOVE) {
+            throw new IllegalStateException("Move " + move + " is past the largest move a trail can hold, " + MAX_MOVE);
+        }
+        if (this.trailSize == this.trailParents.length) {
+            this.trailParents = Arrays.copyOf(this.trailParents, this.trailSize << 1);
+            this.trailMoves = Arrays.copyOf(this.trailMoves, this.trailSize << 1);
+        }
+        this.trailParents[this.trailSize] = parent;
+        this.trailMoves[this.trailSize] = (short) move;
+        return this.trailSize++;
+    }
+
+    /**
+     * Rebuilds the path by following the trail back from the goal to collect the moves,
+     * then replaying them forward from the start.
+     *
+     * @param goalIndex the trail index of the solution, or -1 if there was none.
+     */
+    private void buildPath(int goalIndex) {
+        LinkedList<Configuration> path = null;
+        if (goalIndex >= 0) {
+            // Collect the moves, start first
+            LinkedList<Integer> moves = new LinkedList<>();
+            for (int index = goalIndex; this.trailParents[index] != NO_PARENT; index = this.trailParents[index]) {
+                moves.addFirst(this.trailMoves[index] & MAX_MOVE);
+            }
+
+            // Replay them
+            path = new LinkedList<>();
+            Configuration current = this.start;
+            path.add(current);
+            for (int move : moves) {
+                current = current.applyMove(move);
+                path.add(current);
+            }
+        }
+        this.path = path;
+    }
+
+    /**
+     * Returns the total number of configurations generated.
+     *
+     * @return the total number of configurations seen in the course of generating the solution.
+     */
+    public long getTotalConfigs() {
+        return this.totalConfigs;
+    }
+
+    /**
+     * Returns the number of configurations the bitstate set took as new.
+     *
+     * @return the number of configurations queued.
+     */
+    public int getUniqueConfigs() {
+        return this.trailSize;
+    }
+
+    /**
+     * Returns the fraction of bits set in the bitstate set.
+     *
+     * @return the fill ratio, from 0 to 1.
+     */
+    public double getFillRatio() {
+        return this.visited.getFillRatio();
+    }
+
+    /**
+     * Returns the chance that a new configuration would be missed at the final fill,
+     * the worst any single check during the search could have been.
+     *
+     * @return the omission probability per new configuration.
+     */
+    public double getOmissionProbability() {
+        return this.visited.getFalsePositiveProbability();
+    }
+
+    /**
+     * Returns the expected number of new configurations that were skipped, summing the chance
+     * of a miss at the time each configuration was taken as new. If it is well below 1, a
+     * "No solution" can be trusted about as much as an exact search's.
+     *
+     * @return the estimated number of configurations missed.
+     */
+    public double getEstimatedOmissions() {
+        return this.estimatedOmissions;
+    }
+
+    /**
+     * Returns the number of bytes spent on the bitstate set and the trail.
+     *
+     * @return the bytes used for visited configurations and path recovery.
+     */
+    public long getBytesUsed() {
+        return this.visited.bytes() + (long) this.trailParents.length * (Integer.BYTES + Short.BYTES);
+    }
+
+    /**
+     * Method that returns the path from start configuration to end configuration as a LinkedList.
+     * Note that it is possible to get null as a result from this method if no path
+     * was found or if solve() has not been called yet.
+     *
+     * @return the path to the solution if one was found, else returns null.
+     */
+    public LinkedList<Configuration> getPath() {
+        return this.path;
+    }
+}
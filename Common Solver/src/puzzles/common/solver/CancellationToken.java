@@ -0,0 +1,30 @@
+package puzzles.common.solver;
+
+/**
+ * A flag another thread can set to ask a running solve to stop.
+ * The solver checks it between expansions and returns SolveResult.CANCELLED.
+ */
+public class CancellationToken {
+
+    /** Fields */
+    // Whether the solve has been asked to stop
+    private volatile boolean cancelled;
+
+
+    /** Constructor */
+    public CancellationToken() {
+        this.cancelled = false;
+    }
+
+    /**
+     * Asks the solve using this token to stop.
+     */
+    public void cancel() {
+        this.cancelled = true;
+    }
+
+    /** Accessor for whether the solve has been asked to stop */
+    public boolean isCancelled() {
+        return this.cancelled;
+    }
+}
@@ -0,0 +1,70 @@
+package puzzles.common.solver;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * The representation of a single configuration for a puzzle.
+ * The BFS common solver uses all these methods to solve a puzzle. Therefore,
+ * all the puzzles must implement this interface.
+ */
+public interface Configuration {
+    /**
+     * Is the current configuration a solution?
+     * @return true if the configuration is a puzzle's solution; false, otherwise
+     */
+    boolean isSolution();
+
+    /**
+     * Get the collection of neighbors from the current configuration.
+     * @return All the neighbors
+     */
+    Collection<Configuration> getNeighbors();
+
+    /**
+     * Hand each neighbor of the current configuration to an action as it is generated,
+     * without building a collection first. Puzzles that can generate neighbors one at a time
+     * should override this; the default just walks getNeighbors().
+     * @param action what to do with each neighbor
+     */
+    default void forEachNeighbor(Consumer<? super Configuration> action) {
+        getNeighbors().forEach(action);
+    }
+
+    /**
+     * Get an iterator over the neighbors of the current configuration, for callers that
+     * want to pull neighbors one at a time and may stop before the last one.
+     * @return An iterator over all the neighbors
+     */
+    default Iterator<Configuration> neighborIterator() {
+        return getNeighbors().iterator();
+    }
+
+    /**
+     * Make the neighbor reached by one move, where moves are numbered in the order neighborIterator()
+     * hands out neighbors (0 is the first). A solver can then remember how a configuration was reached
+     * as a small move number instead of a reference to its predecessor, and replay the moves later.
+     * Puzzles that can make a single move directly should override this; the default walks the neighbors.
+     * @param move the move number, from 0 to one less than the number of neighbors
+     * @return the neighbor the move leads to
+     * @throws java.util.NoSuchElementException if there is no such move
+     */
+    default Configuration applyMove(int move) {
+        Iterator<Configuration> neighbors = neighborIterator();
+        for (int i = 0; i < move; i++) {
+            neighbors.next();
+        }
+        return neighbors.next();
+    }
+
+    //////////////////////////////////////////////////////////////////////////////////////
+    // The predecessor map from the BFS Solver forces to any puzzle configuration       //
+    // to override the equals and hashCode methods.                                     //
+    // Failure to do so, it may result ending up in an infinite loop if the BFS solver  //
+    // is unable to detect already visited configurations.                              //
+    //////////////////////////////////////////////////////////////////////////////////////
+    boolean equals(Object other);
+    int hashCode();
+    String toString();
+}
\ No newline at end of file
@@ -0,0 +1,258 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * Interns Configurations into dense integer IDs (0, 1, 2, ...) in the order they are first seen.
+ * Each unique Configuration is hashed once on insertion; after that the solvers work with its ID.
+ * The predecessor and visit count of every state are kept in parallel int arrays indexed by ID,
+ * so a solve over a million states does not allocate a map entry or an Integer per state.
+ * Visit counts are only instrumentation, so a table can be made without them, which saves
+ * the array and the write on every duplicate.
+ *
+ * The table itself uses open addressing with linear probing over an int array of IDs.
+ * Each ID's hashCode is cached so growing the table never has to call hashCode again.
+ */
+public class ConfigurationTable {
+
+    /** Constants */
+    // Marker for an empty slot in the hash table
+    private static final int EMPTY = -1;
+    // ID used as the predecessor of a state that has none (the start)
+    public static final int NO_PARENT = -1;
+    // Number of states the table can hold before growing when no capacity is given
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** Fields */
+    // Open-addressed hash table, each slot holds an ID or EMPTY (length is a power of two)
+    private int[] slots;
+
+    // Configurations by ID
+    private Configuration[] configurations;
+
+    // Cached hashCode of each Configuration by ID
+    private int[] hashes;
+
+    // Predecessor ID of each Configuration by ID
+    private int[] parents;
+
+    // Number of times each Configuration was seen, by ID, or null if hits are not counted
+    private int[] hits;
+
+    // Number of Configurations interned so far (also the next ID to hand out)
+    private int size;
+
+
+    /** Constructor */
+    public ConfigurationTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor with an expected number of states.
+     *
+     * @param capacity the number of states the table can hold before growing.
+     */
+    public ConfigurationTable(int capacity) {
+        this(capacity, true);
+    }
+
+    /**
+     * Constructor that can leave out the visit counts.
+     *
+     * @param countHits true to count how many times each Configuration is seen, false to skip it.
+     */
+    public ConfigurationTable(boolean countHits) {
+        this(DEFAULT_CAPACITY, countHits);
+    }
+
+    /**
+     * Constructor with an expected number of states that can leave out the visit counts.
+     *
+     * @param capacity the number of states the table can hold before growing.
+     * @param countHits true to count how many times each Configuration is seen, false to skip it.
+     */
+    public ConfigurationTable(int capacity, boolean countHits) {
+        capacity = Math.max(capacity, 2);
+
+        // Keep the load factor at or below one half
+        this.slots = new int[Integer.highestOneBit(capacity - 1) << 2];
+        Arrays.fill(this.slots, EMPTY);
+
+        this.configurations = new Configuration[capacity];
+        this.hashes = new int[capacity];
+        this.parents = new int[capacity];
+        this.hits = countHits ? new int[capacity] : null;
+        this.size = 0;
+    }
+
+    /**
+     * Interns a Configuration. If it has not been seen before, it is given the next ID with
+     * parent as its predecessor and a visit count of 1. If it has been seen before, its visit count
+     * goes up by one (if hits are counted) and its predecessor is left alone.
+     *
+     * @param config the Configuration to intern.
+     * @param parent the ID of the Configuration it was generated from, or NO_PARENT.
+     * @return the new ID if config was not in the table, else -(existing ID) - 1.
+     */
+    public int add(Configuration config, int parent) {
+        int hash = config.hashCode();
+        int mask = this.slots.length - 1;
+
+        // Probe for either the Configuration or an empty slot
+        int slot = spread(hash) & mask;
+        int id;
+        while ((id = this.slots[slot]) != EMPTY) {
+            // Compare cached hashes first, only call equals on a likely match
+            if (this.hashes[id] == hash && this.configurations[id].equals(config)) {
+                if (this.hits != null) {
+                    this.hits[id]++;
+                }
+                return -id - 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        // Not seen before, make room for it if needed
+        if (this.size == this.configurations.length) {
+            growArrays();
+        }
+
+        // Hand out the next ID
+        id = this.size++;
+        this.configurations[id] = config;
+        this.hashes[id] = hash;
+        this.parents[id] = parent;
+        if (this.hits != null) {
+            this.hits[id] = 1;
+        }
+        this.slots[slot] = id;
+
+        // Keep the load factor at or below one half
+        if (this.size * 2 > this.slots.length) {
+            rehash(this.slots.length << 1);
+        }
+
+        return id;
+    }
+
+    /**
+     * Looks up the ID of a Configuration without changing the table.
+     *
+     * @param config the Configuration to look up.
+     * @return its ID, or -1 if it is not in the table.
+     */
+    public int find(Configuration config) {
+        int hash = config.hashCode();
+        int mask = this.slots.length - 1;
+        int slot = spread(hash) & mask;
+        int id;
+        while ((id = this.slots[slot]) != EMPTY) {
+            if (this.hashes[id] == hash && this.configurations[id].equals(config)) {
+                return id;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /** Accessor for the Configuration with the given ID */
+    public Configuration get(int id) {
+        return this.configurations[id];
+    }
+
+    /** Accessor for the predecessor ID of the given ID */
+    public int getParent(int id) {
+        return this.parents[id];
+    }
+
+    /**
+     * Changes the predecessor of an ID, for solvers that can find a cheaper route to a state later.
+     *
+     * @param id the ID to change.
+     * @param parent the ID of its new predecessor.
+     */
+    public void setParent(int id, int parent) {
+        this.parents[id] = parent;
+    }
+
+    /**
+     * Returns how many times the given ID was seen.
+     *
+     * @param id the ID to look up.
+     * @return the number of times it was seen.
+     * @throws IllegalStateException if this table does not count hits.
+     */
+    public int getHits(int id) {
+        if (this.hits == null) {
+            throw new IllegalStateException("This table does not count hits");
+        }
+        return this.hits[id];
+    }
+
+    /** Accessor for whether this table counts how many times each Configuration is seen */
+    public boolean isCountingHits() {
+        return this.hits != null;
+    }
+
+    /** Accessor for the number of unique Configurations interned */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Removes every Configuration from the table. The backing arrays keep their current capacity.
+     */
+    public void clear() {
+        Arrays.fill(this.slots, EMPTY);
+        Arrays.fill(this.configurations, 0, this.size, null);
+        this.size = 0;
+    }
+
+    /**
+     * Mixes the bits of a hashCode so that poor hashCodes (like small consecutive ints) still spread
+     * over the whole table.
+     *
+     * @param hash the hashCode to mix.
+     * @return the mixed hash.
+     */
+    private static int spread(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Doubles the per-ID arrays.
+     */
+    private void growArrays() {
+        int capacity = this.configurations.length << 1;
+        this.configurations = Arrays.copyOf(this.configurations, capacity);
+        this.hashes = Arrays.copyOf(this.hashes, capacity);
+        this.parents = Arrays.copyOf(this.parents, capacity);
+        if (this.hits != null) {
+            this.hits = Arrays.copyOf(this.hits, capacity);
+        }
+    }
+
+    /**
+     * Rebuilds the hash table with a new number of slots, using the cached hashes.
+     *
+     * @param slotCount the new number of slots (a power of two).
+     */
+    private void rehash(int slotCount) {
+        int[] newSlots = new int[slotCount];
+        Arrays.fill(newSlots, EMPTY);
+        int mask = slotCount - 1;
+
+        // Re-insert every ID by its cached hash
+        for (int id = 0; id < this.size; id++) {
+            int slot = spread(this.hashes[id]) & mask;
+            while (newSlots[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            newSlots[slot] = id;
+        }
+
+        this.slots = newSlots;
+    }
+}
@@ -0,0 +1,631 @@
+package puzzles.common.solver;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+/**
+ * External-memory BFS Solver for state spaces bigger than the heap.
+ *
+ * States are packed into longs with a LongStateCodec and every BFS layer lives in a temp file
+ * as (state, parent) records sorted by state. Expanding a layer streams it from disk, collecting
+ * neighbors in a fixed-size buffer that is sorted and written out as a run whenever it fills.
+ * Duplicates are removed afterwards (delayed duplicate detection): the runs are merged, and any
+ * state already in the run, or in the sorted file of every state visited so far, is dropped.
+ * Whatever is left is the next layer. Only the run buffer and a few I/O buffers are kept in memory.
+ *
+ * The path is rebuilt by scanning the layer files backwards from the goal, looking up each
+ * state's parent in the layer before it. The path found is a shortest one.
+ */
+public class ExternalSolver implements PathSolver {
+
+    /** Constants */
+    // Number of (state, parent) records in the run buffer when none is given (16 MiB)
+    public static final int DEFAULT_RUN_SIZE = 1 << 20;
+
+    // Bytes in each file read or write buffer
+    private static final int IO_BUFFER_BYTES = 1 << 16;
+
+    /** Fields */
+    // Packs configurations into longs
+    private final LongStateCodec codec;
+
+    // Directory to make temp directories in, or null for the system default
+    private final Path tempRoot;
+
+    // Packed states of the neighbors collected for the current run
+    private final long[] runStates;
+
+    // Packed parents of the neighbors collected for the current run
+    private final long[] runParents;
+
+    // Number of records in the current run
+    private int runSize;
+
+    // Sorted run files written for the current layer
+    private final List<Path> runs;
+
+    // Temp directory of the current solve
+    private Path directory;
+
+    // Starting configuration
+    private Configuration start;
+
+    // Number of configurations generated
+    private long totalConfigs;
+
+    // Number of unique configurations found
+    private long uniqueConfigs;
+
+    // Number of configurations expanded
+    private long expandedConfigs;
+
+    // Number of BFS layers written to disk
+    private int layers;
+
+    // Path to the solution, if it exists
+    private LinkedList<Configuration> path;
+
+
+    /**
+     * Constructor with the default run size and temp directory.
+     *
+     * @param codec packs configurations into longs.
+     */
+    public ExternalSolver(LongStateCodec codec) {
+        this(codec, null, DEFAULT_RUN_SIZE);
+    }
+
+    /**
+     * Constructor with a temp directory and run size.
+     *
+     * @param codec packs configurations into longs.
+     * @param tempRoot directory to put the layer files under, or null for the system temp directory.
+     * @param runSize number of records to collect in memory before sorting and writing a run.
+     */
+    public ExternalSolver(LongStateCodec codec, Path tempRoot, int runSize) {
+        this.codec = codec;
+        this.tempRoot = tempRoot;
+        this.runStates = new long[Math.max(runSize, 1)];
+        this.runParents = new long[Math.max(runSize, 1)];
+        this.runs = new ArrayList<>();
+        this.path = null;
+    }
+
+    /**
+     * Performs BFS with layers on disk. Also builds the shortest path from start to finish if such a
+     * path is possible. The temp files are deleted before returning.
+     *
+     * @param start the starting Configuration to solve from.
+     * @throws IllegalArgumentException if the codec cannot pack every state reachable from start.
+     * @throws IOException if the layer files cannot be written or read.
+     */
+    public void solve(Configuration start) throws IOException {
+        if (!this.codec.fits(start)) {
+            throw new IllegalArgumentException("States reachable from the start do not fit in a long");
+        }
+
+        this.start = start;
+        this.totalConfigs = 0;
+        this.uniqueConfigs = 0;
+        this.expandedConfigs = 0;
+        this.layers = 0;
+        this.path = null;
+        this.directory = this.tempRoot == null
+                ? Files.createTempDirectory("bfs")
+                : Files.createTempDirectory(this.tempRoot, "bfs");
+
+        try {
+            // Layer 0 is the start, which is its own parent
+            long startState = this.codec.encode(start);
+            try (RecordWriter layer = new RecordWriter(layerFile(0), true);
+                 RecordWriter visited = new RecordWriter(visitedFile(0), false)) {
+                layer.write(startState, startState);
+                visited.write(startState, 0);
+            }
+            this.totalConfigs = 1;
+            this.uniqueConfigs = 1;
+            this.layers = 1;
+
+            // Expand one layer at a time until a goal is found or a layer comes out empty
+            long newStates = 1;
+            while (newStates > 0) {
+                int depth = this.layers - 1;
+                long goal = expandLayer(depth);
+                if (goal >= 0) {
+                    buildPath(depth, goal, startState);
+                    break;
+                }
+
+                newStates = mergeRuns(depth + 1);
+                this.uniqueConfigs += newStates;
+                this.layers++;
+            }
+        }
+        catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        finally {
+            deleteDirectory();
+        }
+    }
+
+    /**
+     * Streams a layer from disk, writing the neighbors of each state out in sorted runs.
+     *
+     * @param depth the layer to expand.
+     * @return the packed goal state if one is in the layer, or -1 if there is none.
+     * @throws IOException if the layer cannot be read or a run cannot be written.
+     */
+    private long expandLayer(int depth) throws IOException {
+        this.runs.clear();
+        this.runSize = 0;
+        try (RecordReader layer = new RecordReader(layerFile(depth), true)) {
+            while (layer.next()) {
+                long state = layer.state;
+                Configuration current = this.codec.decode(state);
+                if (current.isSolution()) {
+                    return state;
+                }
+
+                this.expandedConfigs++;
+                current.forEachNeighbor(neighbor -> collect(this.codec.encode(neighbor), state));
+            }
+        }
+        flushRun();
+        return -1;
+    }
+
+    /**
+     * Adds a neighbor to the run buffer, writing the buffer out as a run when it is full.
+     *
+     * @param state the packed neighbor.
+     * @param parent the packed state it was generated from.
+     */
+    private void collect(long state, long parent) {
+        if (this.runSize == this.runStates.length) {
+            try {
+                flushRun();
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        this.runStates[this.runSize] = state;
+        this.runParents[this.runSize] = parent;
+        this.runSize++;
+        this.totalConfigs++;
+    }
+
+    /**
+     * Sorts the run buffer by state and writes it out as a run file, dropping duplicates within it.
+     *
+     * @throws IOException if the run cannot be written.
+     */
+    private void flushRun() throws IOException {
+        if (this.runSize == 0) {
+            return;
+        }
+        sort(this.runStates, this.runParents, 0, this.runSize - 1);
+
+        Path run = this.directory.resolve("run-" + this.runs.size());
+        try (RecordWriter writer = new RecordWriter(run, true)) {
+            for (int i = 0; i < this.runSize; i++) {
+                if (i == 0 || this.runStates[i] != this.runStates[i - 1]) {
+                    writer.write(this.runStates[i], this.runParents[i]);
+                }
+            }
+        }
+        this.runs.add(run);
+        this.runSize = 0;
+    }
+
+    /**
+     * Merges the runs of the layer just expanded, dropping duplicates and every state visited before.
+     * Writes what is left as the next layer, and a new visited file with those states added.
+     *
+     * @param depth the layer being written.
+     * @return the number of states in the new layer.
+     * @throws IOException if a file cannot be read or written.
+     */
+    private long mergeRuns(int depth) throws IOException {
+        // Smallest current state first across all runs
+        PriorityQueue<RecordReader> heap = new PriorityQueue<>(Math.max(this.runs.size(), 1),
+                Comparator.comparingLong((RecordReader reader) -> reader.state));
+        List<RecordReader> readers = new ArrayList<>();
+        long count = 0;
+
+        try (RecordReader visited = new RecordReader(visitedFile(depth - 1), false);
+             RecordWriter layer = new RecordWriter(layerFile(depth), true);
+             RecordWriter nextVisited = new RecordWriter(visitedFile(depth), false)) {
+            for (Path run : this.runs) {
+                RecordReader reader = new RecordReader(run, true);
+                readers.add(reader);
+                if (reader.next()) {
+                    heap.add(reader);
+                }
+            }
+
+            boolean visitedLeft = visited.next();
+            boolean first = true;
+            long last = 0;
+            while (!heap.isEmpty()) {
+                RecordReader reader = heap.poll();
+                long state = reader.state;
+                long parent = reader.parent;
+                if (reader.next()) {
+                    heap.add(reader);
+                }
+
+                // Same state from another run
+                if (!first && state == last) {
+                    continue;
+                }
+                first = false;
+                last = state;
+
+                // Copy over visited states up to this one, skipping this one if it was visited
+                while (visitedLeft && visited.state < state) {
+                    nextVisited.write(visited.state, 0);
+                    visitedLeft = visited.next();
+                }
+                if (visitedLeft && visited.state == state) {
+                    continue;
+                }
+
+                layer.write(state, parent);
+                nextVisited.write(state, 0);
+                count++;
+            }
+
+            // Copy over the rest of the visited states
+            while (visitedLeft) {
+                nextVisited.write(visited.state, 0);
+                visitedLeft = visited.next();
+            }
+        }
+        finally {
+            for (RecordReader reader : readers) {
+                reader.close();
+            }
+        }
+
+        // The runs and the old visited file are no longer needed
+        for (Path run : this.runs) {
+            Files.deleteIfExists(run);
+        }
+        this.runs.clear();
+        Files.deleteIfExists(visitedFile(depth - 1));
+        return count;
+    }
+
+    /**
+     * Builds the shortest path by scanning the layer files backwards from the goal,
+     * looking up each state's parent in the layer it came from.
+     *
+     * @param depth the layer the goal is in.
+     * @param goal the packed goal state.
+     * @param startState the packed start state.
+     * @throws IOException if a layer file cannot be read.
+     */
+    private void buildPath(int depth, long goal, long startState) throws IOException {
+        LinkedList<Configuration> path = new LinkedList<>();
+        long state = goal;
+        for (int d = depth; d > 0; d--) {
+            path.addFirst(this.codec.decode(state));
+            state = findParent(d, state);
+        }
+        path.addFirst(this.start);
+        this.path = path;
+    }
+
+    /**
+     * Scans a layer file for a state and returns its parent.
+     *
+     * @param depth the layer to scan.
+     * @param state the packed state to find.
+     * @return the packed parent.
+     * @throws IOException if the layer cannot be read or the state is not in it.
+     */
+    private long findParent(int depth, long state) throws IOException {
+        try (RecordReader layer = new RecordReader(layerFile(depth), true)) {
+            while (layer.next() && layer.state <= state) {
+                if (layer.state == state) {
+                    return layer.parent;
+                }
+            }
+        }
+        throw new IOException("State " + state + " is missing from layer " + depth);
+    }
+
+    /**
+     * Sorts parallel arrays of states and parents by state (quicksort, insertion sort for short ranges).
+     *
+     * @param states the packed states.
+     * @param parents the packed parents, moved along with their states.
+     * @param low the first index to sort.
+     * @param high the last index to sort.
+     */
+    private static void sort(long[] states, long[] parents, int low, int high) {
+        while (high - low > 16) {
+            // Median of three as the pivot
+            int mid = (low + high) >>> 1;
+            if (states[mid] < states[low]) {
+                swap(states, parents, mid, low);
+            }
+            if (states[high] < states[low]) {
+                swap(states, parents, high, low);
+            }
+            if (states[high] < states[mid]) {
+                swap(states, parents, high, mid);
+            }
+            long pivot = states[mid];
+
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (states[i] < pivot) {
+                    i++;
+                }
+                while (states[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(states, parents, i++, j--);
+                }
+            }
+
+            // Recurse into the smaller side, loop on the bigger one
+            if (j - low < high - i) {
+                sort(states, parents, low, j);
+                low = i;
+            }
+            else {
+                sort(states, parents, i, high);
+                high = j;
+            }
+        }
+
+        for (int i = low + 1; i <= high; i++) {
+            long state = states[i];
+            long parent = parents[i];
+            int j = i - 1;
+            while (j >= low && states[j] > state) {
+                states[j + 1] = states[j];
+                parents[j + 1] = parents[j];
+                j--;
+            }
+            states[j + 1] = state;
+            parents[j + 1] = parent;
+        }
+    }
+
+    /**
+     * Swaps two records in the parallel arrays.
+     */
+    private static void swap(long[] states, long[] parents, int i, int j) {
+        long state = states[i];
+        states[i] = states[j];
+        states[j] = state;
+        long parent = parents[i];
+        parents[i] = parents[j];
+        parents[j] = parent;
+    }
+
+    /** Accessor for the file holding a layer */
+    private Path layerFile(int depth) {
+        return this.directory.resolve("layer-" + depth);
+    }
+
+    /** Accessor for the file holding every state visited up to a layer */
+    private Path visitedFile(int depth) {
+        return this.directory.resolve("visited-" + depth);
+    }
+
+    /**
+     * Deletes the temp directory of the current solve and everything in it.
+     *
+     * @throws IOException if a file cannot be deleted.
+     */
+    private void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.list(this.directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(this.directory);
+        this.directory = null;
+    }
+
+    /**
+     * Returns the total number of configurations generated.
+     *
+     * @return the total number of configurations seen in the course of generating the solution.
+     */
+    public long getTotalConfigs() {
+        return this.totalConfigs;
+    }
+
+    /**
+     * Returns the number of unique configurations found.
+     *
+     * @return the number of unique configurations seen in the course of generating the solution.
+     */
+    public long getUniqueConfigs() {
+        return this.uniqueConfigs;
+    }
+
+    /**
+     * Returns the number of configurations expanded.
+     *
+     * @return the number of configurations whose neighbors were generated.
+     */
+    public long getExpandedConfigs() {
+        return this.expandedConfigs;
+    }
+
+    /**
+     * Returns the number of BFS layers written to disk.
+     *
+     * @return the number of layers.
+     */
+    public int getLayers() {
+        return this.layers;
+    }
+
+    /**
+     * Method that returns the path from start configuration to end configuration as a LinkedList.
+     * Note that it is possible to get null as a result from this method if there is not a path
+     * from the start configuration to the end configuration or if solve() has not been called yet.
+     *
+     * @return the path to the solution if it exists, else returns null.
+     */
+    public LinkedList<Configuration> getPath() {
+        return this.path;
+    }
+
+    /**
+     * Buffered NIO writer of records to a file: (state, parent) pairs, or bare states.
+     */
+    private static class RecordWriter implements AutoCloseable {
+
+        /** Fields */
+        // Channel to the file
+        private final FileChannel channel;
+
+        // Buffer of records not yet written
+        private final ByteBuffer buffer;
+
+        // Whether each record has a parent
+        private final boolean pairs;
+
+        /**
+         * Opens a file for writing, replacing it if it exists.
+         *
+         * @param file the file to write.
+         * @param pairs true to write (state, parent) pairs, false to write bare states.
+         * @throws IOException if the file cannot be opened.
+         */
+        RecordWriter(Path file, boolean pairs) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            this.buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.nativeOrder());
+            this.pairs = pairs;
+        }
+
+        /**
+         * Writes a record.
+         *
+         * @param state the packed state.
+         * @param parent the packed parent (ignored for bare states).
+         * @throws IOException if the file cannot be written.
+         */
+        void write(long state, long parent) throws IOException {
+            if (this.buffer.remaining() < 16) {
+                drain();
+            }
+            this.buffer.putLong(state);
+            if (this.pairs) {
+                this.buffer.putLong(parent);
+            }
+        }
+
+        /**
+         * Writes out everything in the buffer.
+         *
+         * @throws IOException if the file cannot be written.
+         */
+        private void drain() throws IOException {
+            this.buffer.flip();
+            while (this.buffer.hasRemaining()) {
+                this.channel.write(this.buffer);
+            }
+            this.buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                drain();
+            }
+            finally {
+                this.channel.close();
+            }
+        }
+    }
+
+    /**
+     * Buffered NIO reader of records from a file, one at a time into its state and parent fields.
+     */
+    private static class RecordReader implements AutoCloseable {
+
+        /** Fields */
+        // Channel to the file
+        private final FileChannel channel;
+
+        // Buffer of records read but not yet returned
+        private final ByteBuffer buffer;
+
+        // Whether each record has a parent
+        private final boolean pairs;
+
+        // State of the current record
+        long state;
+
+        // Parent of the current record (0 for bare states)
+        long parent;
+
+        /**
+         * Opens a file for reading.
+         *
+         * @param file the file to read.
+         * @param pairs true to read (state, parent) pairs, false to read bare states.
+         * @throws IOException if the file cannot be opened.
+         */
+        RecordReader(Path file, boolean pairs) throws IOException {
+            this.channel = FileChannel.open(file, StandardOpenOption.READ);
+            this.buffer = ByteBuffer.allocateDirect(IO_BUFFER_BYTES).order(ByteOrder.nativeOrder());
+            this.buffer.flip();
+            this.pairs = pairs;
+        }
+
+        /**
+         * Moves to the next record.
+         *
+         * @return true if there was another record, false at the end of the file.
+         * @throws IOException if the file cannot be read.
+         */
+        boolean next() throws IOException {
+            int size = this.pairs ? 16 : 8;
+            if (this.buffer.remaining() < size) {
+                this.buffer.compact();
+                while (this.buffer.position() < size && this.channel.read(this.buffer) >= 0) {
+                    // Keep reading until a whole record is in or the file ends
+                }
+                this.buffer.flip();
+                if (this.buffer.remaining() < size) {
+                    return false;
+                }
+            }
+            this.state = this.buffer.getLong();
+            this.parent = this.pairs ? this.buffer.getLong() : 0;
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+    }
+}
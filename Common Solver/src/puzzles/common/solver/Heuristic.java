@@ -0,0 +1,17 @@
+package puzzles.common.solver;
+
+/**
+ * An estimate of how many moves a configuration is from a solution, used to guide the A* solver.
+ * If the estimate never overestimates the true number of moves (it is admissible), A* still returns
+ * a shortest path. It should return 0 for every solution.
+ *
+ * @param <C> the kind of configuration this heuristic understands.
+ */
+public interface Heuristic<C extends Configuration> {
+    /**
+     * Estimate the number of moves from a configuration to the nearest solution.
+     * @param config the configuration to estimate from
+     * @return the estimated number of moves (never negative)
+     */
+    int estimate(C config);
+}
@@ -0,0 +1,185 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of int IDs ordered by long keys, with decrease-key.
+ * Each ID's position in the heap is tracked in an array indexed by ID, so finding an ID to
+ * lower its key is a direct lookup instead of a search. IDs are expected to be small and dense
+ * (like the IDs handed out by ConfigurationTable).
+ */
+public class IndexedMinHeap {
+
+    /** Constant */
+    // Position of an ID that is not in the heap
+    private static final int ABSENT = -1;
+
+    /** Fields */
+    // IDs in heap order
+    private int[] heap;
+
+    // Number of IDs in the heap
+    private int size;
+
+    // Position of each ID in heap, or ABSENT
+    private int[] positions;
+
+    // Key of each ID
+    private long[] keys;
+
+
+    /** Constructor */
+    public IndexedMinHeap() {
+        this.heap = new int[64];
+        this.positions = new int[64];
+        this.keys = new long[64];
+        Arrays.fill(this.positions, ABSENT);
+        this.size = 0;
+    }
+
+    /**
+     * Adds an ID with a key, or lowers the key of an ID that is already in the heap.
+     * An ID already in the heap with a lower or equal key is left alone.
+     *
+     * @param id the ID to add or update.
+     * @param key its key.
+     */
+    public void offer(int id, long key) {
+        ensureId(id);
+        int position = this.positions[id];
+
+        // New ID, put it at the bottom and sift it up
+        if (position == ABSENT) {
+            if (this.size == this.heap.length) {
+                this.heap = Arrays.copyOf(this.heap, this.size << 1);
+            }
+            this.keys[id] = key;
+            this.heap[this.size] = id;
+            this.positions[id] = this.size;
+            siftUp(this.size++);
+        }
+        // Existing ID with a better key, decrease it
+        else if (key < this.keys[id]) {
+            this.keys[id] = key;
+            siftUp(position);
+        }
+    }
+
+    /**
+     * Removes and returns the ID with the smallest key.
+     *
+     * @return the ID with the smallest key.
+     * @throws IllegalStateException if the heap is empty.
+     */
+    public int poll() {
+        if (this.size == 0) {
+            throw new IllegalStateException("Heap is empty");
+        }
+        int min = this.heap[0];
+        this.positions[min] = ABSENT;
+
+        // Move the last ID to the top and sift it down
+        this.size--;
+        if (this.size > 0) {
+            int last = this.heap[this.size];
+            this.heap[0] = last;
+            this.positions[last] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /** Accessor for the key of the ID with the smallest key */
+    public long peekKey() {
+        return this.keys[this.heap[0]];
+    }
+
+    /** Accessor for whether an ID is in the heap */
+    public boolean contains(int id) {
+        return id < this.positions.length && this.positions[id] != ABSENT;
+    }
+
+    /** Accessor for whether the heap is empty */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /** Accessor for the number of IDs in the heap */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Removes every ID. The backing arrays keep their current capacity.
+     */
+    public void clear() {
+        for (int i = 0; i < this.size; i++) {
+            this.positions[this.heap[i]] = ABSENT;
+        }
+        this.size = 0;
+    }
+
+    /**
+     * Makes sure the per-ID arrays can hold an ID.
+     *
+     * @param id the ID that needs to fit.
+     */
+    private void ensureId(int id) {
+        if (id >= this.positions.length) {
+            int oldLength = this.positions.length;
+            int newLength = Math.max(oldLength << 1, id + 1);
+            this.positions = Arrays.copyOf(this.positions, newLength);
+            Arrays.fill(this.positions, oldLength, newLength, ABSENT);
+            this.keys = Arrays.copyOf(this.keys, newLength);
+        }
+    }
+
+    /**
+     * Moves the ID at a heap position up until its parent's key is not larger.
+     *
+     * @param position the heap position to sift up from.
+     */
+    private void siftUp(int position) {
+        int id = this.heap[position];
+        long key = this.keys[id];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            int parentId = this.heap[parent];
+            if (this.keys[parentId] <= key) {
+                break;
+            }
+            this.heap[position] = parentId;
+            this.positions[parentId] = position;
+            position = parent;
+        }
+        this.heap[position] = id;
+        this.positions[id] = position;
+    }
+
+    /**
+     * Moves the ID at a heap position down until neither child has a smaller key.
+     *
+     * @param position the heap position to sift down from.
+     */
+    private void siftDown(int position) {
+        int id = this.heap[position];
+        long key = this.keys[id];
+        int half = this.size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            int right = child + 1;
+            if (right < this.size && this.keys[this.heap[right]] < this.keys[this.heap[child]]) {
+                child = right;
+            }
+            int childId = this.heap[child];
+            if (key <= this.keys[childId]) {
+                break;
+            }
+            this.heap[position] = childId;
+            this.positions[childId] = position;
+            position = child;
+        }
+        this.heap[position] = id;
+        this.positions[id] = position;
+    }
+}
@@ -0,0 +1,124 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * A FIFO queue of primitive ints backed by a growable ring buffer.
+ * Used by the solvers to queue up state IDs without boxing them into Integers
+ * or allocating a LinkedList node per entry.
+ */
+public class IntQueue {
+
+    /** Constant */
+    // Capacity of a queue when none is given
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /** Fields */
+    // Ring buffer holding the queued values (length is always a power of two)
+    private int[] buffer;
+
+    // Index of the first element in the queue
+    private int head;
+
+    // Number of elements currently in the queue
+    private int size;
+
+
+    /** Constructor */
+    public IntQueue() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor with an initial capacity.
+     *
+     * @param capacity the number of elements the queue can hold before growing.
+     */
+    public IntQueue(int capacity) {
+        // Round the capacity up to a power of two so we can mask instead of mod
+        this.buffer = new int[Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1];
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Adds a value to the back of the queue, growing the buffer if it is full.
+     *
+     * @param value the value to enqueue.
+     */
+    public void add(int value) {
+        // If the buffer is full, double it
+        if (this.size == this.buffer.length) {
+            grow();
+        }
+
+        // Write the value just past the current tail
+        this.buffer[(this.head + this.size) & (this.buffer.length - 1)] = value;
+        this.size++;
+    }
+
+    /**
+     * Removes and returns the value at the front of the queue.
+     *
+     * @return the value at the front of the queue.
+     * @throws IllegalStateException if the queue is empty.
+     */
+    public int poll() {
+        if (this.size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+
+        // Read the head and advance it
+        int value = this.buffer[this.head];
+        this.head = (this.head + 1) & (this.buffer.length - 1);
+        this.size--;
+        return value;
+    }
+
+    /** Accessor for whether the queue is empty */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /** Accessor for the number of queued values */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Empties the queue. The backing buffer keeps its current capacity.
+     */
+    public void clear() {
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Doubles the backing buffer, unrolling the ring so the head sits at index 0.
+     */
+    private void grow() {
+        int[] bigger = new int[this.buffer.length << 1];
+
+        // Copy from the head to the end of the buffer, then the wrapped-around part
+        int firstPart = this.buffer.length - this.head;
+        System.arraycopy(this.buffer, this.head, bigger, 0, firstPart);
+        System.arraycopy(this.buffer, 0, bigger, firstPart, this.head);
+
+        this.buffer = bigger;
+        this.head = 0;
+    }
+
+    /**
+     * Returns a String representation of the queue from front to back.
+     *
+     * @return the queued values as a String.
+     */
+    @Override
+    public String toString() {
+        int[] values = new int[this.size];
+        for (int i = 0; i < this.size; i++) {
+            values[i] = this.buffer[(this.head + i) & (this.buffer.length - 1)];
+        }
+        return Arrays.toString(values);
+    }
+}
@@ -0,0 +1,268 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.Set;
+
+/**
+ * Iterative-deepening Solver that uses memory proportional to the depth of the search.
+ *
+ * Each pass is a depth-first search that gives up on any configuration whose estimated total
+ * cost f = g + h is above the pass's threshold. The first threshold is the start's estimate and
+ * every later one is the smallest f that went over the previous threshold. Without a heuristic
+ * (h = 0) this is plain iterative-deepening DFS; with an admissible heuristic it is IDA*.
+ * Either way the first solution found is a shortest one.
+ *
+ * Only the current path and one neighbor iterator per level are kept, plus a fixed-size
+ * TranspositionTable that skips configurations already reached as cheaply in the same pass.
+ *
+ * @param <C> the kind of configuration this solver works with.
+ */
+public class IterativeDeepeningSolver<C extends Configuration> implements PathSolver {
+
+    /** Constant */
+    // Threshold meaning "nothing went over", so there is nothing left to search
+    private static final int NONE = Integer.MAX_VALUE;
+
+    /** Fields */
+    // Estimate of moves left, or null for plain iterative deepening
+    private final Heuristic<C> heuristic;
+
+    // Cache of configurations already reached in this pass
+    private final TranspositionTable transpositions;
+
+    // Configurations on the current path, by depth
+    private Configuration[] stack;
+
+    // Unvisited neighbors of each configuration on the current path, by depth
+    private Iterator<Configuration>[] neighbors;
+
+    // Configurations on the current path, to skip cycles
+    private final Set<Configuration> onPath;
+
+    // Number of configurations generated, over all passes
+    private long totalConfigs;
+
+    // Number of configurations expanded, over all passes
+    private long expandedConfigs;
+
+    // Number of passes run
+    private int passes;
+
+    // Path to the solution, if it exists
+    private LinkedList<Configuration> path;
+
+
+    /** Constructor for plain iterative-deepening DFS */
+    public IterativeDeepeningSolver() {
+        this(null, new TranspositionTable());
+    }
+
+    /**
+     * Constructor for IDA*.
+     *
+     * @param heuristic the estimate of moves left from a configuration.
+     */
+    public IterativeDeepeningSolver(Heuristic<C> heuristic) {
+        this(heuristic, new TranspositionTable());
+    }
+
+    /**
+     * Constructor with a transposition table of a chosen size.
+     *
+     * @param heuristic the estimate of moves left from a configuration, or null for none.
+     * @param transpositions the transposition table to use.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public IterativeDeepeningSolver(Heuristic<C> heuristic, TranspositionTable transpositions) {
+        this.heuristic = heuristic;
+        this.transpositions = transpositions;
+        this.stack = new Configuration[16];
+        this.neighbors = new Iterator[16];
+        this.onPath = new HashSet<>();
+        this.path = null;
+    }
+
+    /**
+     * Runs deepening passes from the start Configuration until a solution is found or a pass
+     * finds nothing over its threshold (meaning there is no solution).
+     *
+     * @param start the starting Configuration to solve from.
+     */
+    @SuppressWarnings("unchecked")
+    public void solve(C start) {
+        this.transpositions.clear();
+        this.totalConfigs = 1;
+        this.expandedConfigs = 0;
+        this.passes = 0;
+        this.path = null;
+
+        // A solved start needs no search
+        if (start.isSolution()) {
+            this.path = new LinkedList<>();
+            this.path.add(start);
+            return;
+        }
+
+        int threshold = estimate(start);
+        while (threshold != NONE) {
+            this.passes++;
+            threshold = search(start, threshold);
+            if (this.path != null) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * Runs one depth-first pass, skipping anything estimated to cost more than threshold.
+     * If a solution is found, the path field is set.
+     *
+     * @param start the starting Configuration.
+     * @param threshold the largest f to explore in this pass.
+     * @return the smallest f that went over threshold, or NONE if nothing did.
+     */
+    @SuppressWarnings("unchecked")
+    private int search(C start, int threshold) {
+        int nextThreshold = NONE;
+        int depth = 0;
+        this.onPath.clear();
+        push(0, start);
+        this.transpositions.visit(start, 0, this.passes);
+
+        while (depth >= 0) {
+            // Out of neighbors at this depth, back up
+            if (!this.neighbors[depth].hasNext()) {
+                this.onPath.remove(this.stack[depth]);
+                this.stack[depth] = null;
+                this.neighbors[depth] = null;
+                depth--;
+                continue;
+            }
+
+            Configuration next = this.neighbors[depth].next();
+            this.totalConfigs++;
+            int cost = depth + 1;
+
+            // Over budget for this pass, but remember by how little
+            int f = cost + estimate((C) next);
+            if (f > threshold) {
+                nextThreshold = Math.min(nextThreshold, f);
+                continue;
+            }
+
+            // Skip cycles and anything already reached as cheaply in this pass
+            if (this.onPath.contains(next) || this.transpositions.visit(next, cost, this.passes)) {
+                continue;
+            }
+
+            // Found a solution within the threshold, the current path leads to it
+            if (next.isSolution()) {
+                buildPath(depth, next);
+                return threshold;
+            }
+
+            // Go deeper
+            depth = cost;
+            push(depth, next);
+        }
+
+        return nextThreshold;
+    }
+
+    /**
+     * Puts a configuration on the current path at a depth and starts iterating its neighbors.
+     *
+     * @param depth the depth to put it at.
+     * @param config the configuration.
+     */
+    private void push(int depth, Configuration config) {
+        if (depth == this.stack.length) {
+            this.stack = Arrays.copyOf(this.stack, depth << 1);
+            this.neighbors = Arrays.copyOf(this.neighbors, depth << 1);
+        }
+        this.stack[depth] = config;
+        this.neighbors[depth] = config.neighborIterator();
+        this.onPath.add(config);
+        this.expandedConfigs++;
+    }
+
+    /**
+     * Estimates the moves left from a configuration, or 0 without a heuristic.
+     *
+     * @param config the configuration.
+     * @return the estimate.
+     */
+    private int estimate(C config) {
+        return this.heuristic == null ? 0 : this.heuristic.estimate(config);
+    }
+
+    /**
+     * Builds the path from the configurations on the current path plus the solution.
+     *
+     * @param depth the depth of the last configuration on the current path.
+     * @param goal the solution reached from it.
+     */
+    private void buildPath(int depth, Configuration goal) {
+        LinkedList<Configuration> path = new LinkedList<>();
+        for (int i = 0; i <= depth; i++) {
+            path.add(this.stack[i]);
+        }
+        path.add(goal);
+        this.path = path;
+
+        // Let go of the search state
+        Arrays.fill(this.stack, null);
+        Arrays.fill(this.neighbors, null);
+        this.onPath.clear();
+    }
+
+    /**
+     * Returns the total number of configurations generated over all passes.
+     *
+     * @return the total number of configurations seen in the course of generating the solution.
+     */
+    public long getTotalConfigs() {
+        return this.totalConfigs;
+    }
+
+    /**
+     * Returns the number of configurations expanded over all passes.
+     *
+     * @return the number of configurations whose neighbors were generated.
+     */
+    public long getExpandedConfigs() {
+        return this.expandedConfigs;
+    }
+
+    /**
+     * Returns the number of deepening passes run.
+     *
+     * @return the number of passes.
+     */
+    public int getPasses() {
+        return this.passes;
+    }
+
+    /**
+     * Returns the number of times the transposition table let the search skip a configuration.
+     *
+     * @return the number of transposition hits.
+     */
+    public long getTranspositionHits() {
+        return this.transpositions.getHits();
+    }
+
+    /**
+     * Method that returns the path from start configuration to end configuration as a LinkedList.
+     * Note that it is possible to get null as a result from this method if there is not a path
+     * from the start configuration to the end configuration or if solve() has not been called yet.
+     *
+     * @return the path to the solution if it exists, else returns null.
+     */
+    public LinkedList<Configuration> getPath() {
+        return this.path;
+    }
+}
@@ -0,0 +1,240 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+
+/**
+ * BFS Solver that holds only two depths of configurations at a time, for puzzles whose
+ * configurations have a rank that goes down by one with every move.
+ *
+ * A ranked configuration can only be reached at one depth, so duplicates can only come from the
+ * same depth and the visited set never needs the depths already expanded. The solver interns the
+ * depth being expanded and the depth being generated into two ConfigurationTables, and clears the
+ * older one as soon as the next depth is finished.
+ *
+ * All that is kept of an expanded depth is, for each of its configurations, the index of its parent
+ * in the depth before (an int) and the number of the move that reached it (a short). The path is
+ * rebuilt by following the parent indexes back from the goal and replaying the moves from the start
+ * with applyMove, so neighbors must always come out in the same order.
+ *
+ * Depths are expanded in order and neighbors are interned in the order they are generated, so the
+ * path found is the same one Solver finds.
+ */
+public class LayeredSolver implements PathSolver {
+
+    /** Constant */
+    // Largest move number a parent entry can hold (moves are stored as unsigned shorts)
+    private static final int MAX_MOVE = 0xFFFF;
+
+    /** Fields */
+    // Configurations at the depth being expanded, with their parent indexes
+    private ConfigurationTable current;
+
+    // Configurations at the depth being generated, with their parent indexes
+    private ConfigurationTable next;
+
+    // Number of the move that reached each configuration at the depth being generated, by index
+    private short[] nextMoves;
+
+    // Index of each configuration's parent in the depth before, by depth and index (depth 0 is empty)
+    private int[][] layerParents;
+
+    // Number of the move from the parent that reached each configuration, by depth and index
+    private short[][] layerMoves;
+
+    // Starting configuration
+    private RankedConfiguration start;
+
+    // Number of configurations generated
+    private long totalConfigs;
+
+    // Number of unique configurations over all depths
+    private long uniqueConfigs;
+
+    // Most configurations held at one depth
+    private int widestLayer;
+
+    // Path to the solution, if it exists
+    private LinkedList<Configuration> path;
+
+
+    /** Constructor */
+    public LayeredSolver() {
+        this.current = new ConfigurationTable(false);
+        this.next = new ConfigurationTable(false);
+        this.nextMoves = new short[16];
+        this.layerParents = new int[16][];
+        this.layerMoves = new short[16][];
+        this.path = null;
+    }
+
+    /**
+     * Performs BFS one depth at a time, forgetting each depth once the next one is generated.
+     * Also builds the shortest path from start to finish if such a path is possible.
+     *
+     * @param start the starting Configuration to solve from.
+     * @throws IllegalStateException if a neighbor's rank is not one less than its parent's.
+     */
+    public void solve(RankedConfiguration start) {
+        this.start = start;
+        this.totalConfigs = 1;
+        this.uniqueConfigs = 1;
+        this.widestLayer = 1;
+        this.path = null;
+        this.current.clear();
+        this.next.clear();
+        this.current.add(start, ConfigurationTable.NO_PARENT);
+
+        // Depth and index of the solution, if one is found
+        int depth = 0;
+        int goalIndex = -1;
+
+        while (this.current.size() > 0) {
+            goalIndex = expandLayer();
+            if (goalIndex >= 0) {
+                // Count what was generated ahead of the goal, as Solver does
+                this.uniqueConfigs += this.next.size();
+                break;
+            }
+
+            // Keep only the parent indexes and moves of the new depth
+            depth++;
+            int width = this.next.size();
+            if (depth == this.layerParents.length) {
+                this.layerParents = Arrays.copyOf(this.layerParents, depth << 1);
+                this.layerMoves = Arrays.copyOf(this.layerMoves, depth << 1);
+            }
+            int[] parents = new int[width];
+            for (int i = 0; i < width; i++) {
+                parents[i] = this.next.getParent(i);
+            }
+            this.layerParents[depth] = parents;
+            this.layerMoves[depth] = Arrays.copyOf(this.nextMoves, width);
+            this.uniqueConfigs += width;
+            this.widestLayer = Math.max(this.widestLayer, width);
+
+            // The new depth is the one to expand, and the old one is forgotten
+            ConfigurationTable expanded = this.current;
+            this.current = this.next;
+            this.next = expanded;
+            this.next.clear();
+        }
+
+        buildPath(depth, goalIndex);
+
+        // Let go of the last depths and the history
+        this.current.clear();
+        this.next.clear();
+        Arrays.fill(this.layerParents, null);
+        Arrays.fill(this.layerMoves, null);
+    }
+
+    /**
+     * Tests each configuration at the current depth for a solution, in order, and expands the ones
+     * before the first solution into the next depth.
+     *
+     * @return the index of the first solution at the current depth, or -1 if there is none.
+     * @throws IllegalStateException if a neighbor's rank is not one less than its parent's.
+     */
+    private int expandLayer() {
+        for (int index = 0; index < this.current.size(); index++) {
+            RankedConfiguration config = (RankedConfiguration) this.current.get(index);
+            if (config.isSolution()) {
+                return index;
+            }
+
+            int rank = config.rank();
+            int move = 0;
+            for (Iterator<Configuration> it = config.neighborIterator(); it.hasNext(); move++) {
+                RankedConfiguration neighbor = (RankedConfiguration) it.next();
+                this.totalConfigs++;
+                if (neighbor.rank() != rank - 1) {
+                    throw new IllegalStateException("Move " + move + " goes from rank " + rank
+                            + " to rank " + neighbor.rank() + ", not " + (rank - 1));
+                }
+
+                // A non-negative ID means the neighbor is new at the next depth
+                int id = this.next.add(neighbor, index);
+                if (id >= 0) {
+                    if (move > MAX_MOVE) {
+                        throw new IllegalStateException("Move " + move + " is past the largest move a layer can hold, " + MAX_MOVE);
+                    }
+                    if (id == this.nextMoves.length) {
+                        this.nextMoves = Arrays.copyOf(this.nextMoves, id << 1);
+                    }
+                    this.nextMoves[id] = (short) move;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Rebuilds the path by following parent indexes back from the goal to collect the moves,
+     * then replaying them forward from the start.
+     *
+     * @param depth the depth of the solution.
+     * @param goalIndex the index of the solution at its depth, or -1 if there was none.
+     */
+    private void buildPath(int depth, int goalIndex) {
+        LinkedList<Configuration> path = null;
+        if (goalIndex >= 0) {
+            // Collect the moves, start first
+            int[] moves = new int[depth];
+            for (int index = goalIndex; depth > 0; depth--) {
+                moves[depth - 1] = this.layerMoves[depth][index] & MAX_MOVE;
+                index = this.layerParents[depth][index];
+            }
+
+            // Replay them
+            path = new LinkedList<>();
+            Configuration current = this.start;
+            path.add(current);
+            for (int move : moves) {
+                current = current.applyMove(move);
+                path.add(current);
+            }
+        }
+        this.path = path;
+    }
+
+    /**
+     * Returns the total number of configurations generated.
+     *
+     * @return the total number of configurations seen in the course of generating the solution.
+     */
+    public long getTotalConfigs() {
+        return this.totalConfigs;
+    }
+
+    /**
+     * Returns the number of unique configurations over all depths generated.
+     *
+     * @return the number of unique configurations.
+     */
+    public long getUniqueConfigs() {
+        return this.uniqueConfigs;
+    }
+
+    /**
+     * Returns the most configurations that were held at one depth, the most that were ever
+     * alive at once apart from the depth before it.
+     *
+     * @return the width of the widest depth.
+     */
+    public int getWidestLayer() {
+        return this.widestLayer;
+    }
+
+    /**
+     * Method that returns the path from start configuration to end configuration as a LinkedList.
+     * Note that it is possible to get null as a result from this method if there is not a path
+     * from the start configuration to the end configuration or if solve() has not been called yet.
+     *
+     * @return the path to the solution if it exists, else returns null.
+     */
+    public LinkedList<Configuration> getPath() {
+        return this.path;
+    }
+}
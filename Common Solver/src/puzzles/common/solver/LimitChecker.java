@@ -0,0 +1,160 @@
+package puzzles.common.solver;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks SolveLimits and a CancellationToken once per expansion, cheaply enough for a solver's hot loop.
+ * The expansion count is compared every time; the clock, the token and the memory are only read
+ * every CHECK_INTERVAL expansions.
+ *
+ * Memory in use is the heap plus whatever off-heap memory the solver reports, such as an OffHeapStateTable.
+ * Garbage counts as heap in use until it is collected, so a heap over the limit only stops the solve
+ * once the collections since the solve started left it over the limit too; until then the JVM's own
+ * next collection settles it. The checker never collects by itself, so a solve can go past the limit
+ * by what it allocates between two of the JVM's collections.
+ */
+class LimitChecker {
+
+    /** Constants */
+    // Expansions between reads of the clock, the token and the memory (a power of two)
+    private static final int CHECK_INTERVAL = 1 << 10;
+
+    /** Fields */
+    // The limits being enforced
+    private final SolveLimits limits;
+
+    // Token to watch, or null for none
+    private final CancellationToken token;
+
+    // Whether there is a time limit
+    private final boolean timed;
+
+    // System.nanoTime() past which the solve times out
+    private final long deadline;
+
+    // Number of checks so far
+    private long checks;
+
+    // The JVM's garbage collectors
+    private final List<GarbageCollectorMXBean> collectors;
+
+    // Number of collections each collector had run when the solve started
+    private final long[] startCollections;
+
+
+    /**
+     * Starts the clock on a solve.
+     *
+     * @param limits the limits to enforce.
+     * @param token the token to watch, or null for none.
+     */
+    LimitChecker(SolveLimits limits, CancellationToken token) {
+        this.limits = limits;
+        this.token = token;
+        this.timed = limits.getTimeLimitMillis() != Long.MAX_VALUE;
+        this.deadline = System.nanoTime()
+                + Math.min(TimeUnit.MILLISECONDS.toNanos(limits.getTimeLimitMillis()), Long.MAX_VALUE >> 1);
+        this.checks = 0;
+        this.collectors = ManagementFactory.getGarbageCollectorMXBeans();
+        this.startCollections = new long[this.collectors.size()];
+        for (int i = 0; i < this.startCollections.length; i++) {
+            this.startCollections[i] = this.collectors.get(i).getCollectionCount();
+        }
+    }
+
+    /**
+     * Checks whether the solve has to stop before its next expansion, for a solve that only uses the heap.
+     *
+     * @param expanded the number of configurations expanded so far.
+     * @return why the solve has to stop, or null to keep going.
+     */
+    SolveResult check(long expanded) {
+        return check(expanded, 0);
+    }
+
+    /**
+     * Checks whether the solve has to stop before its next expansion.
+     *
+     * @param expanded the number of configurations expanded so far.
+     * @param offHeapBytes the bytes the solve holds outside the heap.
+     * @return why the solve has to stop, or null to keep going.
+     */
+    SolveResult check(long expanded, long offHeapBytes) {
+        if (expanded >= this.limits.getMaxExpanded()) {
+            return SolveResult.EXPANSION_LIMIT;
+        }
+        if ((this.checks++ & (CHECK_INTERVAL - 1)) != 0) {
+            return null;
+        }
+        if (this.token != null && this.token.isCancelled()) {
+            return SolveResult.CANCELLED;
+        }
+        if (this.timed && System.nanoTime() - this.deadline >= 0) {
+            return SolveResult.TIMED_OUT;
+        }
+        if (this.limits.getMaxMemoryBytes() != Long.MAX_VALUE) {
+            long heapLimit = this.limits.getMaxMemoryBytes() - offHeapBytes;
+            if (heapLimit <= 0) {
+                return SolveResult.MEMORY_LIMIT;
+            }
+            // What the last collections left is already live, since a solve's tables only grow;
+            // anything above that may be garbage the JVM's next collection will settle
+            if (heapInUse() >= heapLimit && heapAfterCollection() >= heapLimit) {
+                return SolveResult.MEMORY_LIMIT;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the heap in use right now, garbage included.
+     *
+     * @return the bytes of heap in use.
+     */
+    private static long heapInUse() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Returns the heap each heap pool had in use after its last collection, counting only pools collected
+     * since the solve started (anything older may belong to an earlier solve). A pool that has not been
+     * collected since it last grew undercounts, so this is a lower bound on the live heap.
+     *
+     * @return the bytes of heap left by this solve's collections.
+     */
+    private long heapAfterCollection() {
+        long used = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            MemoryUsage usage = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+            if (usage != null && collectedSinceStart(pool.getName())) {
+                used += usage.getUsed();
+            }
+        }
+        return used;
+    }
+
+    /**
+     * Checks whether a memory pool has been collected since the solve started.
+     *
+     * @param poolName the name of the pool.
+     * @return true if a collector of that pool has run since the solve started, false otherwise.
+     */
+    private boolean collectedSinceStart(String poolName) {
+        for (int i = 0; i < this.startCollections.length; i++) {
+            GarbageCollectorMXBean collector = this.collectors.get(i);
+            if (collector.getCollectionCount() > this.startCollections[i]
+                    && Arrays.asList(collector.getMemoryPoolNames()).contains(poolName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
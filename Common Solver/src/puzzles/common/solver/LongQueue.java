@@ -0,0 +1,232 @@
+package puzzles.common.solver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A FIFO queue of primitive longs stored in fixed-size segments.
+ * Used by the solvers to queue up packed states without boxing them into Longs
+ * or allocating a LinkedList node per entry.
+ *
+ * Growing never copies the queued values: a full queue just takes on another segment, and a
+ * segment is let go as soon as its last value is polled. So a wide BFS layer costs about its own
+ * size in memory, not the two or three times that doubling a single array can briefly need.
+ */
+public class LongQueue {
+
+    /** Constants */
+    // log2 of the number of values in a segment
+    private static final int SEGMENT_SHIFT = 12;
+
+    // Number of values in a segment
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+    // Number of segment slots a queue starts with when no capacity is given
+    private static final int DEFAULT_SEGMENTS = 4;
+
+    /** Fields */
+    // Ring of segments, front segment at firstSegment (length is always a power of two)
+    private long[][] segments;
+
+    // Index in segments of the segment holding the front of the queue
+    private int firstSegment;
+
+    // Number of segments in use
+    private int segmentCount;
+
+    // Index of the front value within the front segment
+    private int head;
+
+    // Number of values currently in the queue
+    private int size;
+
+    // An emptied segment kept for the next one needed, or null
+    private long[] spare;
+
+
+    /** Constructor */
+    public LongQueue() {
+        this(DEFAULT_SEGMENTS * SEGMENT_SIZE);
+    }
+
+    /**
+     * Constructor with an initial capacity.
+     *
+     * @param capacity the number of values the queue expects to hold, used to size its ring of segments.
+     */
+    public LongQueue(int capacity) {
+        // Round the number of segments up to a power of two so we can mask instead of mod
+        int segments = Math.max((capacity + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT, 2);
+        this.segments = new long[Integer.highestOneBit(segments - 1) << 1][];
+        this.firstSegment = 0;
+        this.segmentCount = 0;
+        this.head = 0;
+        this.size = 0;
+        this.spare = null;
+    }
+
+    /**
+     * Adds a value to the back of the queue, taking on another segment if the last one is full.
+     *
+     * @param value the value to enqueue.
+     */
+    public void add(long value) {
+        int position = this.head + this.size;
+        int segment = position >>> SEGMENT_SHIFT;
+
+        // If the tail is past the last segment, add one
+        if (segment == this.segmentCount) {
+            if (this.segmentCount == this.segments.length) {
+                growRing();
+            }
+            this.segments[(this.firstSegment + segment) & (this.segments.length - 1)] = takeSegment();
+            this.segmentCount++;
+        }
+
+        this.segments[(this.firstSegment + segment) & (this.segments.length - 1)][position & (SEGMENT_SIZE - 1)] = value;
+        this.size++;
+    }
+
+    /**
+     * Removes and returns the value at the front of the queue.
+     *
+     * @return the value at the front of the queue.
+     * @throws IllegalStateException if the queue is empty.
+     */
+    public long poll() {
+        if (this.size == 0) {
+            throw new IllegalStateException("Queue is empty");
+        }
+
+        // Read the head and advance it
+        long value = this.segments[this.firstSegment][this.head];
+        this.head++;
+        this.size--;
+
+        // If that was the last value in the front segment, let it go
+        if (this.head == SEGMENT_SIZE) {
+            this.spare = this.segments[this.firstSegment];
+            this.segments[this.firstSegment] = null;
+            this.firstSegment = (this.firstSegment + 1) & (this.segments.length - 1);
+            this.segmentCount--;
+            this.head = 0;
+        }
+        return value;
+    }
+
+    /** Accessor for whether the queue is empty */
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /** Accessor for the number of queued values */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Empties the queue, keeping one segment for the next values added.
+     */
+    public void clear() {
+        for (int i = 0; i < this.segmentCount; i++) {
+            int index = (this.firstSegment + i) & (this.segments.length - 1);
+            this.spare = this.segments[index];
+            this.segments[index] = null;
+        }
+        this.firstSegment = 0;
+        this.segmentCount = 0;
+        this.head = 0;
+        this.size = 0;
+    }
+
+    /**
+     * Returns the number of bytes held by the queue's segments.
+     *
+     * @return the bytes allocated to queued values.
+     */
+    public long bytes() {
+        return ((long) this.segmentCount + (this.spare == null ? 0 : 1)) * SEGMENT_SIZE * Long.BYTES;
+    }
+
+    /**
+     * Writes the number of queued values, then the values from front to back.
+     *
+     * @param out where to write.
+     * @throws IOException if writing fails.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(this.size);
+        for (int i = 0; i < this.size; i++) {
+            out.writeLong(get(i));
+        }
+    }
+
+    /**
+     * Replaces the contents of the queue with values written by write.
+     *
+     * @param in where to read from.
+     * @throws IOException if reading fails.
+     */
+    public void read(DataInput in) throws IOException {
+        clear();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            add(in.readLong());
+        }
+    }
+
+    /**
+     * Returns a queued value without removing it.
+     *
+     * @param i how far the value is from the front of the queue.
+     * @return the value.
+     */
+    private long get(int i) {
+        int position = this.head + i;
+        int segment = (this.firstSegment + (position >>> SEGMENT_SHIFT)) & (this.segments.length - 1);
+        return this.segments[segment][position & (SEGMENT_SIZE - 1)];
+    }
+
+    /**
+     * Hands out the spare segment if there is one, else a new one.
+     *
+     * @return an empty segment.
+     */
+    private long[] takeSegment() {
+        long[] segment = this.spare;
+        this.spare = null;
+        return segment != null ? segment : new long[SEGMENT_SIZE];
+    }
+
+    /**
+     * Doubles the ring of segments, unrolling it so the front segment sits at index 0.
+     * Only the segment references move; the values stay where they are.
+     */
+    private void growRing() {
+        long[][] bigger = new long[this.segments.length << 1][];
+
+        // Copy from the front segment to the end of the ring, then the wrapped-around part
+        int firstPart = this.segments.length - this.firstSegment;
+        System.arraycopy(this.segments, this.firstSegment, bigger, 0, firstPart);
+        System.arraycopy(this.segments, 0, bigger, firstPart, this.firstSegment);
+
+        this.segments = bigger;
+        this.firstSegment = 0;
+    }
+
+    /**
+     * Returns a String representation of the queue from front to back.
+     *
+     * @return the queued values as a String.
+     */
+    @Override
+    public String toString() {
+        long[] values = new long[this.size];
+        for (int i = 0; i < this.size; i++) {
+            values[i] = get(i);
+        }
+        return Arrays.toString(values);
+    }
+}
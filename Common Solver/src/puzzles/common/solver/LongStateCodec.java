@@ -0,0 +1,30 @@
+package puzzles.common.solver;
+
+/**
+ * Packs the configurations of one puzzle into a single long, so the Solver can keep visited
+ * states and their predecessors as primitive longs instead of Configuration objects.
+ * Packed states must be non-negative and less than Long.MAX_VALUE.
+ */
+public interface LongStateCodec {
+    /**
+     * Does every configuration reachable from this start fit in a packed state?
+     * If not, the Solver falls back to storing Configuration objects.
+     * @param start the starting configuration
+     * @return true if every reachable configuration can be encoded; false, otherwise
+     */
+    boolean fits(Configuration start);
+
+    /**
+     * Packs a configuration into a long.
+     * @param config the configuration to pack
+     * @return the packed state
+     */
+    long encode(Configuration config);
+
+    /**
+     * Rebuilds the configuration a packed state came from.
+     * @param state a packed state made by encode
+     * @return a configuration equal to the one that was encoded
+     */
+    Configuration decode(long state);
+}
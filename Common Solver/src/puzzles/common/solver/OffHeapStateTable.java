@@ -0,0 +1,227 @@
+package puzzles.common.solver;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+/**
+ * An open-addressing hash table from packed state to packed parent state, stored off the Java
+ * heap in a direct buffer. Each entry is two longs (state and parent), so the table holds tens of
+ * millions of states with no per-state objects for the garbage collector to trace.
+ *
+ * States are stored plus one so a zeroed slot means empty, which is why packed states must be
+ * non-negative and less than Long.MAX_VALUE.
+ */
+public class OffHeapStateTable {
+
+    /** Constants */
+    // Value returned when a state is not in the table
+    public static final long NOT_FOUND = -1L;
+
+    // Number of entries when none is given
+    private static final int DEFAULT_CAPACITY = 1 << 16;
+
+    // Largest number of entries (16 bytes each, so 1 GiB, the largest power of two a direct buffer can hold)
+    private static final int MAX_CAPACITY = 1 << 26;
+
+    /** Fields */
+    // Entries as pairs of longs: state + 1 (0 if empty), then parent
+    private LongBuffer slots;
+
+    // Number of entries the table has room for (always a power of two)
+    private int capacity;
+
+    // Number of states in the table
+    private int size;
+
+
+    /** Constructor */
+    public OffHeapStateTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructor with an initial capacity.
+     *
+     * @param capacity the number of entries to make room for; rounded up to a power of two.
+     */
+    public OffHeapStateTable(int capacity) {
+        this.capacity = Math.min(Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1, MAX_CAPACITY);
+        this.slots = allocate(this.capacity);
+        this.size = 0;
+    }
+
+    /**
+     * Adds a state with its parent, unless the state is already in the table.
+     *
+     * @param state the packed state.
+     * @param parent the packed state it was reached from.
+     * @return true if the state was added, false if it was already there.
+     * @throws IllegalStateException if every slot but the last empty one is taken.
+     */
+    public boolean putIfAbsent(long state, long parent) {
+        // Keep the load at or below one half so probe runs stay short, until the table can't grow;
+        // past that it fills up to its last empty slot, which every probe run needs to end
+        if (this.size >= this.capacity >>> 1 && this.capacity < MAX_CAPACITY) {
+            grow();
+        }
+        else if (this.size >= this.capacity - 1) {
+            throw new IllegalStateException("Off-heap state table is full at " + this.size + " states");
+        }
+
+        int slot = find(this.slots, this.capacity, state);
+        if (this.slots.get(slot << 1) != 0) {
+            return false;
+        }
+        this.slots.put(slot << 1, state + 1);
+        this.slots.put((slot << 1) + 1, parent);
+        this.size++;
+        return true;
+    }
+
+    /**
+     * Looks up the parent of a state.
+     *
+     * @param state the packed state.
+     * @return the packed parent, or NOT_FOUND if the state is not in the table.
+     */
+    public long getParent(long state) {
+        int slot = find(this.slots, this.capacity, state);
+        return this.slots.get(slot << 1) == 0 ? NOT_FOUND : this.slots.get((slot << 1) + 1);
+    }
+
+    /**
+     * Tests whether a state is in the table.
+     *
+     * @param state the packed state.
+     * @return true if the state is in the table, false otherwise.
+     */
+    public boolean contains(long state) {
+        return this.slots.get(find(this.slots, this.capacity, state) << 1) != 0;
+    }
+
+    /**
+     * Removes every state. The buffer keeps its current capacity, so refilling the table to the
+     * same size does not allocate or rehash.
+     */
+    public void clear() {
+        int longs = this.capacity << 1;
+        for (int i = 0; i < longs; i++) {
+            this.slots.put(i, 0);
+        }
+        this.size = 0;
+    }
+
+    /**
+     * Writes the number of states, then each state with its parent, in slot order.
+     *
+     * @param out where to write.
+     * @throws IOException if writing fails.
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(this.size);
+        for (int i = 0; i < this.capacity; i++) {
+            long key = this.slots.get(i << 1);
+            if (key != 0) {
+                out.writeLong(key - 1);
+                out.writeLong(this.slots.get((i << 1) + 1));
+            }
+        }
+    }
+
+    /**
+     * Replaces the contents of the table with states written by write.
+     *
+     * @param in where to read from.
+     * @throws IOException if reading fails.
+     */
+    public void read(DataInput in) throws IOException {
+        clear();
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            long state = in.readLong();
+            putIfAbsent(state, in.readLong());
+        }
+    }
+
+    /**
+     * Tests whether the table has grown as far as it can and is half full. It still takes more
+     * states, but with longer probes and only up to its capacity, so a search should stop adding to it.
+     *
+     * @return true if the table is full, false otherwise.
+     */
+    public boolean isFull() {
+        return this.capacity >= MAX_CAPACITY && this.size >= this.capacity >>> 1;
+    }
+
+    /** Accessor for the number of states in the table */
+    public int size() {
+        return this.size;
+    }
+
+    /** Accessor for the number of off-heap bytes the table is using */
+    public long bytes() {
+        return (long) this.capacity << 4;
+    }
+
+    /**
+     * Finds the slot holding a state, or the empty slot where it would go.
+     *
+     * @param slots the entries to search.
+     * @param capacity the number of entries.
+     * @param state the packed state.
+     * @return the slot index.
+     */
+    private static int find(LongBuffer slots, int capacity, long state) {
+        int mask = capacity - 1;
+        int slot = (int) mix(state) & mask;
+        long key = state + 1;
+        long stored;
+        while ((stored = slots.get(slot << 1)) != 0 && stored != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * Spreads the bits of a packed state, since packed states tend to differ only in their low bits.
+     *
+     * @param state the packed state.
+     * @return the mixed hash.
+     */
+    private static long mix(long state) {
+        long h = state * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 32);
+    }
+
+    /**
+     * Doubles the table and re-inserts every entry.
+     */
+    private void grow() {
+        int bigger = this.capacity << 1;
+        LongBuffer moved = allocate(bigger);
+        for (int i = 0; i < this.capacity; i++) {
+            long key = this.slots.get(i << 1);
+            if (key != 0) {
+                int slot = find(moved, bigger, key - 1);
+                moved.put(slot << 1, key);
+                moved.put((slot << 1) + 1, this.slots.get((i << 1) + 1));
+            }
+        }
+        this.slots = moved;
+        this.capacity = bigger;
+    }
+
+    /**
+     * Allocates zeroed off-heap room for a number of entries.
+     *
+     * @param capacity the number of entries.
+     * @return the entries as a buffer of longs.
+     */
+    private static LongBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity << 4).order(ByteOrder.nativeOrder()).asLongBuffer();
+    }
+}
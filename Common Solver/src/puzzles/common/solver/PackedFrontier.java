@@ -0,0 +1,73 @@
+package puzzles.common.solver;
+
+/**
+ * A FIFO queue of configurations that keeps them packed. Each configuration is encoded into a
+ * long by a LongStateCodec when it is added and decoded again when it is polled, so the queue holds
+ * eight bytes per entry in a LongQueue instead of a node and a Configuration object.
+ * The only configurations alive are the ones a solver is working on.
+ */
+public class PackedFrontier {
+
+    /** Fields */
+    // Packs and unpacks the queued configurations
+    private final LongStateCodec codec;
+
+    // Packed states of the queued configurations
+    private final LongQueue states;
+
+
+    /**
+     * Constructor with the codec to pack configurations with.
+     *
+     * @param codec packs configurations into longs; every configuration added must fit.
+     */
+    public PackedFrontier(LongStateCodec codec) {
+        this.codec = codec;
+        this.states = new LongQueue();
+    }
+
+    /**
+     * Packs a configuration and adds it to the back of the queue.
+     *
+     * @param config the configuration to enqueue.
+     */
+    public void add(Configuration config) {
+        this.states.add(this.codec.encode(config));
+    }
+
+    /**
+     * Removes the configuration at the front of the queue and unpacks it.
+     *
+     * @return a configuration equal to the one at the front of the queue.
+     * @throws IllegalStateException if the queue is empty.
+     */
+    public Configuration poll() {
+        return this.codec.decode(this.states.poll());
+    }
+
+    /** Accessor for whether the queue is empty */
+    public boolean isEmpty() {
+        return this.states.isEmpty();
+    }
+
+    /** Accessor for the number of queued configurations */
+    public int size() {
+        return this.states.size();
+    }
+
+    /**
+     * Returns the number of bytes the packed states take up.
+     *
+     * @return the bytes allocated to queued configurations.
+     */
+    public long bytes() {
+        return this.states.bytes();
+    }
+
+    /**
+     * Empties the queue.
+     */
+    public void clear() {
+        this.states.clear();
+    }
+}
@@ -0,0 +1,225 @@
+package puzzles.common.solver;
+
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Level-synchronous BFS Solver that expands each BFS depth across all cores.
+ *
+ * Every configuration in the frontier is expanded in parallel. A newly found neighbor may be
+ * generated by several frontier configurations at once, so each generator records a claim
+ * (its index in the frontier, then the neighbor's index in its neighbor collection) and the
+ * smallest claim wins. The next frontier is sorted by winning claim. This is exactly the order and
+ * the predecessor the serial Solver would have picked, so the path found is the same one Solver finds,
+ * no matter how many threads ran or how they were scheduled.
+ *
+ * Configurations must be safe to expand from several threads at once. A solver built with a thread
+ * count owns its pool and should be closed when it is no longer needed.
+ */
+public class ParallelSolver implements PathSolver, AutoCloseable {
+
+    /** Fields */
+    // Pool that runs the per-level work
+    private final ForkJoinPool pool;
+
+    // Whether the pool was created by this solver, and so is shut down by close()
+    private final boolean ownsPool;
+
+    // Predecessor map, key = Configuration, value = Configuration that is its predecessor
+    private final ConcurrentHashMap<Configuration, Configuration> predecessorMap;
+
+    // Starting configuration
+    private Configuration start;
+
+    // Goal configuration
+    private Configuration goal;
+
+    // Number of configurations generated
+    private long totalConfigs;
+
+    // Path to the solution, if it exists
+    private LinkedList<Configuration> path;
+
+
+    /** Constructor that uses every core through the common pool */
+    public ParallelSolver() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor with a fixed number of worker threads.
+     *
+     * @param parallelism the number of threads to expand levels with.
+     */
+    public ParallelSolver(int parallelism) {
+        this(new ForkJoinPool(parallelism), true);
+    }
+
+    /**
+     * Constructor with the pool to run on.
+     *
+     * @param pool the fork-join pool to expand levels with.
+     */
+    public ParallelSolver(ForkJoinPool pool) {
+        this(pool, false);
+    }
+
+    /**
+     * Constructor with the pool to run on and whether closing the solver shuts it down.
+     *
+     * @param pool the fork-join pool to expand levels with.
+     * @param ownsPool true if the pool was created for this solver alone.
+     */
+    private ParallelSolver(ForkJoinPool pool, boolean ownsPool) {
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.predecessorMap = new ConcurrentHashMap<>();
+        this.totalConfigs = 0;
+        this.path = null;
+    }
+
+    /**
+     * Performs level-synchronous BFS from the start Configuration.
+     * Also builds the shortest path from start to finish if such a path is possible.
+     *
+     * @param start the starting Configuration to solve from.
+     */
+    public void solve(Configuration start) {
+        this.start = start;
+        this.goal = null;
+        this.predecessorMap.clear();
+        this.predecessorMap.put(start, start);
+        this.totalConfigs = 1;
+
+        // The first frontier is just the start
+        Configuration[] frontier = { start };
+
+        while (frontier.length > 0) {
+            // Check the whole level for a solution, taking the first one in frontier order
+            Configuration[] level = frontier;
+            int goalIndex = this.pool.submit(() -> IntStream.range(0, level.length).parallel()
+                    .filter(i -> level[i].isSolution())
+                    .findFirst()
+                    .orElse(-1)).join();
+            if (goalIndex >= 0) {
+                this.goal = level[goalIndex];
+                break;
+            }
+
+            frontier = expandLevel(level);
+        }
+
+        buildPath();
+    }
+
+    /**
+     * Expands every configuration of one BFS level in parallel and returns the next level,
+     * in the order the serial Solver would have queued it.
+     *
+     * @param level the configurations at the current depth.
+     * @return the new configurations at the next depth.
+     */
+    private Configuration[] expandLevel(Configuration[] level) {
+        // Smallest claim on each new neighbor: frontier index in the high half, neighbor index in the low half
+        ConcurrentHashMap<Configuration, Long> claims = new ConcurrentHashMap<>();
+        LongAdder generated = new LongAdder();
+
+        this.pool.submit(() -> IntStream.range(0, level.length).parallel().forEach(i -> {
+            long claim = (long) i << 32;
+            for (Configuration neighbor : level[i].getNeighbors()) {
+                generated.increment();
+                if (!this.predecessorMap.containsKey(neighbor)) {
+                    claims.merge(neighbor, claim, Math::min);
+                }
+                claim++;
+            }
+        })).join();
+        this.totalConfigs += generated.sum();
+
+        // Order the new configurations by winning claim
+        List<Map.Entry<Configuration, Long>> entries = this.pool.submit(() -> claims.entrySet().parallelStream()
+                .sorted(Comparator.comparingLong(Map.Entry::getValue))
+                .collect(Collectors.toList())).join();
+
+        // Record each one's predecessor and build the next frontier
+        Configuration[] next = new Configuration[entries.size()];
+        this.pool.submit(() -> IntStream.range(0, next.length).parallel().forEach(i -> {
+            Map.Entry<Configuration, Long> entry = entries.get(i);
+            this.predecessorMap.put(entry.getKey(), level[(int) (entry.getValue() >>> 32)]);
+            next[i] = entry.getKey();
+        })).join();
+
+        return next;
+    }
+
+    /**
+     * Builds the shortest path between the start configuration and the solution configuration.
+     * If a valid path exists, this method sets the path field equal to that path.
+     * Otherwise, it sets the path field equal to null.
+     */
+    private void buildPath() {
+        LinkedList<Configuration> path = null;
+
+        // If we were able to reach the goal configuration...
+        if (this.goal != null) {
+            path = new LinkedList<>();
+
+            // Follow predecessors back to the start
+            Configuration current = this.goal;
+            while (!current.equals(this.start)) {
+                path.addFirst(current);
+                current = this.predecessorMap.get(current);
+            }
+            path.addFirst(this.start);
+        }
+
+        this.path = path;
+    }
+
+    /**
+     * Returns the total number of configurations generated. Every level before the solution's
+     * is expanded in full, so this can be larger than the serial Solver's count.
+     *
+     * @return the total number of configurations seen in the course of generating the solution.
+     */
+    public long getTotalConfigs() {
+        return this.totalConfigs;
+    }
+
+    /**
+     * Returns the number of unique configurations seen.
+     *
+     * @return the number of unique configurations seen in the course of generating the solution.
+     */
+    public int getUniqueConfigs() {
+        return this.predecessorMap.size();
+    }
+
+    /**
+     * Method that returns the path from start configuration to end configuration as a LinkedList.
+     * Note that it is possible to get null as a result from this method if there is not a path
+     * from the start configuration to the end configuration or if solve() has not been called yet.
+     *
+     * @return the path to the solution if it exists, else returns null.
+     */
+    public LinkedList<Configuration> getPath() {
+        return this.path;
+    }
+
+    /**
+     * Shuts down the pool if this solver created it. A pool that was passed in is left running.
+     */
+    @Override
+    public void close() {
+        if (this.ownsPool) {
+            this.pool.shutdown();
+        }
+    }
+}
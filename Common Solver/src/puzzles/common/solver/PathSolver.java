@@ -0,0 +1,65 @@
+package puzzles.common.solver;
+
+import java.util.LinkedList;
+
+/**
+ * The result side shared by every solver: the path it found from the start Configuration to a
+ * solution, and the two ways the puzzles print it. Chess and Tilt boards span several lines, so
+ * getPathAsString puts each board on the line after its step number; Clock and Water states fit
+ * on one line, so getSolutionPath keeps each step on a single line.
+ */
+public interface PathSolver {
+
+    /**
+     * Method that returns the path from start configuration to end configuration as a LinkedList.
+     * Note that it is possible to get null as a result from this method if there is not a path
+     * from the start configuration to the end configuration or if solve() has not been called yet.
+     *
+     * @return the path to the solution if it exists, else returns null.
+     */
+    LinkedList<Configuration> getPath();
+
+    /**
+     * Method that returns a String containing the steps from start to finish, if they exist,
+     * with each configuration starting on the line after its step number.
+     * If the path is null (meaning no solution exists), returns "No solution".
+     *
+     * @return the path to the solution if it exists, else returns "No solution".
+     */
+    default String getPathAsString() {
+        return formatPath(getPath(), ": \n");
+    }
+
+    /**
+     * Method that returns a String containing the steps from start to finish, if they exist,
+     * with each configuration on the same line as its step number.
+     * If the path is null (meaning no solution exists), returns "No solution".
+     *
+     * @return the path to the solution if it exists, else returns "No solution".
+     */
+    default String getSolutionPath() {
+        return formatPath(getPath(), ": ");
+    }
+
+    /**
+     * Numbers the steps of a path.
+     *
+     * @param path the path, or null if there is none.
+     * @param separator what goes between each step number and its configuration.
+     * @return the numbered steps, or "No solution" if there is no path.
+     */
+    private static String formatPath(LinkedList<Configuration> path, String separator) {
+        // If there is no path from start to goal...
+        if (path == null) {
+            return "No solution";
+        }
+
+        // Accumulate the steps of the path
+        StringBuilder result = new StringBuilder();
+        int i = 0;
+        for (Configuration step : path) {
+            result.append("Step ").append(i++).append(separator).append(step).append("\n");
+        }
+        return result.toString();
+    }
+}
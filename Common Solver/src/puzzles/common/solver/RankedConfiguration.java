@@ -0,0 +1,16 @@
+package puzzles.common.solver;
+
+/**
+ * A Configuration with a rank that goes down by exactly one with every move, such as the number of
+ * pieces left in a capture puzzle. The number of moves from the start to a configuration is then fixed
+ * by its rank, so a configuration can only ever turn up at one depth of a BFS, and the LayeredSolver
+ * can forget each depth as soon as it has expanded it.
+ */
+public interface RankedConfiguration extends Configuration {
+    /**
+     * Get the rank of this configuration. Every neighbor must be a RankedConfiguration whose rank is
+     * exactly one less than this one's.
+     * @return the rank
+     */
+    int rank();
+}
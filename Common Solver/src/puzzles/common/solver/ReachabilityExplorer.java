@@ -0,0 +1,222 @@
+package puzzles.common.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Explores every state reachable from a start, ignoring whether any of them is a solution, and
+ * reports on the shape of the space: its size, its depth histogram, the eccentricity of the start,
+ * how many states are solutions and how many moves each state has.
+ *
+ * The exploration is a level-synchronous BFS. Each depth is expanded in chunks; the neighbors of a
+ * chunk are generated on all cores, then interned into one ConfigurationTable on the calling thread.
+ * States are interned in BFS order, so each depth is a contiguous range of IDs and no queue is needed.
+ *
+ * Configurations must be safe to expand from several threads at once. An explorer built with a thread
+ * count owns its pool and should be closed when it is no longer needed.
+ */
+public class ReachabilityExplorer implements AutoCloseable {
+
+    /** Constant */
+    // Number of states whose neighbors are generated together before being interned
+    private static final int CHUNK_SIZE = 1 << 12;
+
+    /** Fields */
+    // Pool that generates neighbors
+    private final ForkJoinPool pool;
+
+    // Whether the pool was created by this explorer, and so is shut down by close()
+    private final boolean ownsPool;
+
+    // Every state seen, by ID in BFS order (kept between explorations, so it keeps its capacity)
+    private final ConfigurationTable table;
+
+    // Told about progress at each depth, or null for none
+    private SearchListener listener;
+
+
+    /** Constructor that uses every core through the common pool */
+    public ReachabilityExplorer() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Constructor with a fixed number of worker threads.
+     *
+     * @param parallelism the number of threads to generate neighbors with.
+     */
+    public ReachabilityExplorer(int parallelism) {
+        this(new ForkJoinPool(parallelism), true);
+    }
+
+    /**
+     * Constructor with the pool to run on.
+     *
+     * @param pool the fork-join pool to generate neighbors with.
+     */
+    public ReachabilityExplorer(ForkJoinPool pool) {
+        this(pool, false);
+    }
+
+    /**
+     * Constructor with the pool to run on and whether closing the explorer shuts it down.
+     *
+     * @param pool the fork-join pool to generate neighbors with.
+     * @param ownsPool true if the pool was created for this explorer alone.
+     */
+    private ReachabilityExplorer(ForkJoinPool pool, boolean ownsPool) {
+        this.pool = pool;
+        this.ownsPool = ownsPool;
+        this.table = new ConfigurationTable(false);
+    }
+
+    /**
+     * Sets the listener told about progress at the end of each depth.
+     *
+     * @param listener the listener, or null for none.
+     */
+    public void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Explores everything reachable from a start.
+     *
+     * @param name what to call the start in the report, such as its file name.
+     * @param start the configuration to explore from.
+     * @return the report.
+     */
+    public ReachabilityReport explore(String name, Configuration start) {
+        return explore(name, start, SolveLimits.NONE, null);
+    }
+
+    /**
+     * Explores everything reachable from a start, within some limits. If a limit stops it, the
+     * report covers the depths finished so far.
+     *
+     * @param name what to call the start in the report, such as its file name.
+     * @param start the configuration to explore from.
+     * @param limits when to give up.
+     * @param token lets another thread stop the exploration, or null for none.
+     * @return the report.
+     */
+    public ReachabilityReport explore(String name, Configuration start, SolveLimits limits, CancellationToken token) {
+        LimitChecker limitChecker = new LimitChecker(limits, token);
+        long startNanos = System.nanoTime();
+        this.table.clear();
+        this.table.add(start, ConfigurationTable.NO_PARENT);
+
+        long[] depthCounts = new long[16];
+        long[] branchingCounts = new long[16];
+        long solutionStates = 0;
+        int solutionDepth = -1;
+        long edges = 0;
+        long expanded = 0;
+        long peakHeapBytes = 0;
+        SolveResult result = null;
+
+        // Per-chunk results from the worker threads, each writing only its own slots
+        List<Collection<Configuration>> neighbors = new ArrayList<>(Collections.nCopies(CHUNK_SIZE, null));
+        boolean[] solved = new boolean[CHUNK_SIZE];
+
+        int depth = 0;
+        int layerStart = 0;
+        int layerEnd = 1;
+        while (layerStart < layerEnd && result == null) {
+            if (depth == depthCounts.length) {
+                depthCounts = Arrays.copyOf(depthCounts, depth << 1);
+            }
+            depthCounts[depth] = layerEnd - layerStart;
+
+            for (int chunkStart = layerStart; chunkStart < layerEnd && result == null; chunkStart += CHUNK_SIZE) {
+                // Generate the chunk's neighbors and solution checks on all cores
+                int first = chunkStart;
+                int count = Math.min(CHUNK_SIZE, layerEnd - chunkStart);
+                this.pool.submit(() -> IntStream.range(0, count).parallel().forEach(i -> {
+                    Configuration current = this.table.get(first + i);
+                    solved[i] = current.isSolution();
+                    neighbors.set(i, current.getNeighbors());
+                })).join();
+
+                // Intern them here, in order, so IDs stay in BFS order
+                for (int i = 0; i < count; i++) {
+                    if ((result = limitChecker.check(expanded)) != null) {
+                        break;
+                    }
+                    expanded++;
+                    if (solved[i]) {
+                        solutionStates++;
+                        if (solutionDepth < 0) {
+                            solutionDepth = depth;
+                        }
+                    }
+
+                    int branching = neighbors.get(i).size();
+                    if (branching >= branchingCounts.length) {
+                        branchingCounts = Arrays.copyOf(branchingCounts, Math.max(branching + 1, branchingCounts.length << 1));
+                    }
+                    branchingCounts[branching]++;
+                    edges += branching;
+
+                    for (Configuration neighbor : neighbors.get(i)) {
+                        this.table.add(neighbor, first + i);
+                    }
+                    neighbors.set(i, null);
+                }
+            }
+
+            // Sample the heap once per depth, when it holds the most
+            Runtime runtime = Runtime.getRuntime();
+            peakHeapBytes = Math.max(peakHeapBytes, runtime.totalMemory() - runtime.freeMemory());
+            if (this.listener != null) {
+                int unique = this.table.size();
+                this.listener.depthCompleted(new SolveStats(depth, unique - layerEnd, edges + 1, unique, expanded,
+                        System.nanoTime() - startNanos, peakHeapBytes / unique));
+            }
+
+            layerStart = layerEnd;
+            layerEnd = this.table.size();
+            depth++;
+        }
+
+        if (result == null) {
+            result = solutionStates > 0 ? SolveResult.SOLVED : SolveResult.UNSOLVABLE;
+        }
+        ReachabilityReport report = new ReachabilityReport(name, result, Arrays.copyOf(depthCounts, depth),
+                trimHistogram(branchingCounts), solutionStates, solutionDepth, edges,
+                System.nanoTime() - startNanos, peakHeapBytes);
+
+        // Let the states go rather than holding them until the next exploration
+        this.table.clear();
+        return report;
+    }
+
+    /**
+     * Cuts the empty tail off a histogram.
+     *
+     * @param counts the histogram.
+     * @return the histogram up to its last non-zero count.
+     */
+    private static long[] trimHistogram(long[] counts) {
+        int length = counts.length;
+        while (length > 0 && counts[length - 1] == 0) {
+            length--;
+        }
+        return Arrays.copyOf(counts, length);
+    }
+
+    /**
+     * Shuts down the pool if this explorer created it. A pool that was passed in is left running.
+     */
+    @Override
+    public void close() {
+        if (this.ownsPool) {
+            this.pool.shutdown();
+        }
+    }
+}
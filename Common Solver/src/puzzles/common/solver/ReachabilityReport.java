@@ -0,0 +1,181 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * What a ReachabilityExplorer found out about the whole state space reachable from one start:
+ * how big it is, how deep it goes, how many of its states are solutions and how many moves each
+ * state has. Only a complete exploration describes the whole space; one stopped by a limit
+ * describes the part it got through.
+ */
+public class ReachabilityReport {
+
+    /** Fields */
+    // Name of what was explored, such as a file name
+    private final String name;
+
+    // How the exploration ended: SOLVED or UNSOLVABLE if it finished, otherwise what stopped it
+    private final SolveResult result;
+
+    // Number of states at each depth from the start
+    private final long[] depthCounts;
+
+    // Number of states with each number of neighbors
+    private final long[] branchingCounts;
+
+    // Number of reachable states that are solutions
+    private final long solutionStates;
+
+    // Depth of the shallowest solution, or -1 if none was reached
+    private final int solutionDepth;
+
+    // Number of neighbors generated, counting repeats
+    private final long edges;
+
+    // Time the exploration took, in nanoseconds
+    private final long elapsedNanos;
+
+    // Most heap in use at the end of any depth, in bytes
+    private final long peakHeapBytes;
+
+
+    /**
+     * Constructor with everything the explorer found.
+     *
+     * @param name name of what was explored.
+     * @param result how the exploration ended.
+     * @param depthCounts number of states at each depth from the start.
+     * @param branchingCounts number of states with each number of neighbors.
+     * @param solutionStates number of reachable states that are solutions.
+     * @param solutionDepth depth of the shallowest solution, or -1 if none was reached.
+     * @param edges number of neighbors generated, counting repeats.
+     * @param elapsedNanos time the exploration took, in nanoseconds.
+     * @param peakHeapBytes most heap in use at the end of any depth, in bytes.
+     */
+    public ReachabilityReport(String name, SolveResult result, long[] depthCounts, long[] branchingCounts,
+                              long solutionStates, int solutionDepth, long edges, long elapsedNanos,
+                              long peakHeapBytes) {
+        this.name = name;
+        this.result = result;
+        this.depthCounts = depthCounts.clone();
+        this.branchingCounts = branchingCounts.clone();
+        this.solutionStates = solutionStates;
+        this.solutionDepth = solutionDepth;
+        this.edges = edges;
+        this.elapsedNanos = elapsedNanos;
+        this.peakHeapBytes = peakHeapBytes;
+    }
+
+    /** Accessor for the name of what was explored */
+    public String getName() {
+        return this.name;
+    }
+
+    /** Accessor for how the exploration ended */
+    public SolveResult getResult() {
+        return this.result;
+    }
+
+    /** Accessor for whether every reachable state was explored */
+    public boolean isComplete() {
+        return !this.result.isAborted();
+    }
+
+    /**
+     * Returns the number of reachable states, the start included.
+     *
+     * @return the number of states.
+     */
+    public long getReachableStates() {
+        return Arrays.stream(this.depthCounts).sum();
+    }
+
+    /**
+     * Returns the eccentricity of the start: the greatest number of moves any reachable state needs.
+     *
+     * @return the depth of the deepest state.
+     */
+    public int getEccentricity() {
+        return this.depthCounts.length - 1;
+    }
+
+    /**
+     * Returns how many states are at each depth from the start.
+     *
+     * @return the counts, indexed by depth.
+     */
+    public long[] getDepthHistogram() {
+        return this.depthCounts.clone();
+    }
+
+    /**
+     * Returns how many explored states have each number of neighbors (repeats included).
+     *
+     * @return the counts, indexed by number of neighbors.
+     */
+    public long[] getBranchingHistogram() {
+        return this.branchingCounts.clone();
+    }
+
+    /**
+     * Returns the average number of neighbors of an explored state.
+     *
+     * @return the mean branching factor.
+     */
+    public double getMeanBranching() {
+        long expanded = Arrays.stream(this.branchingCounts).sum();
+        return expanded == 0 ? 0 : (double) this.edges / expanded;
+    }
+
+    /** Accessor for the number of reachable states that are solutions */
+    public long getSolutionStates() {
+        return this.solutionStates;
+    }
+
+    /** Accessor for the depth of the shallowest solution, or -1 if none was reached */
+    public int getSolutionDepth() {
+        return this.solutionDepth;
+    }
+
+    /** Accessor for the number of neighbors generated, counting repeats */
+    public long getEdges() {
+        return this.edges;
+    }
+
+    /** Accessor for the time the exploration took, in nanoseconds */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /** Accessor for the most heap in use at the end of any depth, in bytes */
+    public long getPeakHeapBytes() {
+        return this.peakHeapBytes;
+    }
+
+    /**
+     * Returns the report over several lines: the totals, then the depth and branching histograms.
+     *
+     * @return the report.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append(this.name).append(": ").append(isComplete() ? "complete" : "stopped, " + this.result).append("\n");
+        result.append(String.format("  reachable states %d, eccentricity %d, solution states %d, shortest solution %s%n",
+                getReachableStates(), getEccentricity(), this.solutionStates,
+                this.solutionDepth < 0 ? "none" : String.valueOf(this.solutionDepth)));
+        result.append(String.format("  edges %d, mean branching %.2f, %.0f ms, peak heap %d MB%n",
+                this.edges, getMeanBranching(), this.elapsedNanos / 1e6, this.peakHeapBytes >> 20));
+        result.append("  depths:");
+        for (int depth = 0; depth < this.depthCounts.length; depth++) {
+            result.append(" ").append(depth).append("=").append(this.depthCounts[depth]);
+        }
+        result.append("\n  branching:");
+        for (int neighbors = 0; neighbors < this.branchingCounts.length; neighbors++) {
+            if (this.branchingCounts[neighbors] > 0) {
+                result.append(" ").append(neighbors).append("=").append(this.branchingCounts[neighbors]);
+            }
+        }
+        return result.append("\n").toString();
+    }
+}
@@ -0,0 +1,24 @@
+package puzzles.common.solver;
+
+import java.util.Collection;
+
+/**
+ * A Configuration whose moves can be run backwards, and whose solutions can be listed explicitly.
+ * The bidirectional solver needs both: it searches forward from the start with getNeighbors()
+ * and backward from the goals with getPredecessors() until the two searches meet.
+ */
+public interface ReversibleConfiguration extends Configuration {
+    /**
+     * Get the collection of configurations that have this configuration as a neighbor.
+     * Every element must also be a ReversibleConfiguration.
+     * @return All the predecessors
+     */
+    Collection<Configuration> getPredecessors();
+
+    /**
+     * Get every solution configuration of this puzzle that the forward search could reach.
+     * Every element must also be a ReversibleConfiguration.
+     * @return All the goal configurations (empty if the puzzle has no reachable solution)
+     */
+    Collection<Configuration> getGoals();
+}
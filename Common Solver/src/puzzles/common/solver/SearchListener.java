@@ -0,0 +1,13 @@
+package puzzles.common.solver;
+
+/**
+ * Gets told how a BFS is going each time it finishes a depth.
+ * Called on the solving thread, once per depth, so it stays out of the per-state work.
+ */
+public interface SearchListener {
+    /**
+     * Called when every configuration at one depth has been expanded.
+     * @param stats the counters so far; stats.getDepth() is the depth now being started
+     */
+    void depthCompleted(SolveStats stats);
+}
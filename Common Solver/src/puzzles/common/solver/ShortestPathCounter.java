@@ -0,0 +1,449 @@
+package puzzles.common.solver;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+
+/**
+ * BFS Solver that finds how many distinct shortest solutions a puzzle has, not just one of them.
+ * Every edge from a state at depth d to a state at depth d + 1 is kept as a predecessor link, which
+ * makes the BFS layers a DAG whose paths from the start to a solution are exactly the shortest
+ * solutions. Path counts are summed per state while searching, so counting never walks the paths;
+ * pathIterator() walks them lazily, one at a time, for when they are actually wanted.
+ *
+ * States are interned in BFS order, so the IDs themselves are the queue: the next state to expand
+ * is simply the next ID.
+ */
+public class ShortestPathCounter implements PathSolver {
+
+    /** Constants */
+    // Marker for the end of a state's list of predecessor links
+    private static final int NO_LINK = -1;
+
+    // Number of states and links there is room for before the arrays first grow
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** Fields */
+    // Every state seen, by ID in BFS order
+    private final ConfigurationTable table;
+
+    // BFS depth of each state, by ID
+    private int[] depths;
+
+    // Number of shortest paths from the start to each state, by ID (wrong if overflowed is set)
+    private long[] pathCounts;
+
+    // Whether a path count went past Long.MAX_VALUE, so the counts must be redone with BigIntegers
+    private boolean overflowed;
+
+    // First predecessor link of each state, by ID, or NO_LINK
+    private int[] firstLinks;
+
+    // State each link comes from, by link
+    private int[] linkFrom;
+
+    // Next link into the same state, by link, or NO_LINK
+    private int[] nextLinks;
+
+    // Number of predecessor links
+    private int links;
+
+    // IDs of the solutions at the shortest solution depth
+    private int[] goals;
+
+    // Number of solutions found
+    private int goalCount;
+
+    // Depth of the solutions, or -1 if there are none
+    private int solutionLength;
+
+    // Number of configurations generated
+    private long totalConfigs;
+
+    // How the last solve ended, or null if solve() has not been called yet
+    private SolveResult result;
+
+
+    /** Constructor */
+    public ShortestPathCounter() {
+        this.table = new ConfigurationTable(false);
+        this.depths = new int[DEFAULT_CAPACITY];
+        this.pathCounts = new long[DEFAULT_CAPACITY];
+        this.firstLinks = new int[DEFAULT_CAPACITY];
+        this.linkFrom = new int[DEFAULT_CAPACITY];
+        this.nextLinks = new int[DEFAULT_CAPACITY];
+        this.goals = new int[DEFAULT_CAPACITY];
+        this.solutionLength = -1;
+    }
+
+    /**
+     * Performs BFS, finding every solution at the shortest solution depth and counting the shortest
+     * paths to each of them.
+     *
+     * @param start the starting Configuration to solve from.
+     */
+    public void solve(Configuration start) {
+        solve(start, SolveLimits.NONE, null);
+    }
+
+    /**
+     * Performs BFS within some limits, stopping early if the token is cancelled.
+     * If the solve is aborted there are no solutions, but the counters still describe the work done.
+     *
+     * @param start the starting Configuration to solve from.
+     * @param limits when to give up.
+     * @param token lets another thread stop the solve, or null for none.
+     * @return how the solve ended.
+     */
+    public SolveResult solve(Configuration start, SolveLimits limits, CancellationToken token) {
+        LimitChecker limitChecker = new LimitChecker(limits, token);
+        this.table.clear();
+        this.links = 0;
+        this.goalCount = 0;
+        this.solutionLength = -1;
+        this.overflowed = false;
+        this.result = null;
+
+        // The start is the one state at depth 0
+        addStart(start);
+        this.totalConfigs = 1;
+
+        // IDs are handed out in BFS order, so expanding them in order is the queue
+        for (int currentId = 0; currentId < this.table.size(); currentId++) {
+            Configuration current = this.table.get(currentId);
+            int depth = this.depths[currentId];
+
+            // Past the first solution's layer, every solution that short has been seen
+            if (this.solutionLength >= 0 && depth > this.solutionLength) {
+                break;
+            }
+
+            // Every state in this layer has its full count now, since the layer before is expanded
+            if (current.isSolution()) {
+                addGoal(currentId);
+                this.solutionLength = depth;
+            }
+
+            // Once a solution is known, the rest of its layer is only checked, not expanded
+            if (this.solutionLength >= 0) {
+                continue;
+            }
+
+            // Give up if a limit was reached or the solve was cancelled
+            if ((this.result = limitChecker.check(currentId)) != null) {
+                this.goalCount = 0;
+                this.solutionLength = -1;
+                return this.result;
+            }
+
+            int id = currentId;
+            current.forEachNeighbor(neighbor -> visit(id, neighbor));
+        }
+
+        this.result = this.goalCount > 0 ? SolveResult.SOLVED : SolveResult.UNSOLVABLE;
+        return this.result;
+    }
+
+    /**
+     * Records one neighbor of the state being expanded. A new neighbor goes one layer deeper with the
+     * expanded state's path count; a neighbor already in the next layer gains another predecessor and
+     * adds the expanded state's count to its own. Anything shallower is not on a shortest path from here.
+     *
+     * @param currentId the ID of the state being expanded.
+     * @param neighbor one of its neighbors.
+     */
+    private void visit(int currentId, Configuration neighbor) {
+        this.totalConfigs++;
+        int depth = this.depths[currentId] + 1;
+        int id = this.table.add(neighbor, currentId);
+        if (id >= 0) {
+            growStates(id);
+            this.depths[id] = depth;
+            this.pathCounts[id] = this.pathCounts[currentId];
+            this.firstLinks[id] = NO_LINK;
+            addLink(id, currentId);
+            return;
+        }
+
+        id = -id - 1;
+        // Two moves from the same state to the same neighbor are one step of a path, not two
+        if (this.depths[id] == depth && this.linkFrom[this.firstLinks[id]] != currentId) {
+            addLink(id, currentId);
+            long count = this.pathCounts[id] + this.pathCounts[currentId];
+            if (count < 0) {
+                this.overflowed = true;
+            }
+            this.pathCounts[id] = count;
+        }
+    }
+
+    /**
+     * Interns the start state: depth 0, reached by the one empty path, with no predecessors.
+     *
+     * @param start the starting Configuration.
+     */
+    private void addStart(Configuration start) {
+        int id = this.table.add(start, ConfigurationTable.NO_PARENT);
+        this.depths[id] = 0;
+        this.pathCounts[id] = 1;
+        this.firstLinks[id] = NO_LINK;
+    }
+
+    /**
+     * Makes sure the per-state arrays can hold an ID.
+     *
+     * @param id the ID that needs to fit.
+     */
+    private void growStates(int id) {
+        if (id == this.depths.length) {
+            int capacity = this.depths.length << 1;
+            this.depths = Arrays.copyOf(this.depths, capacity);
+            this.pathCounts = Arrays.copyOf(this.pathCounts, capacity);
+            this.firstLinks = Arrays.copyOf(this.firstLinks, capacity);
+        }
+    }
+
+    /**
+     * Adds a predecessor link to the front of a state's list.
+     *
+     * @param id the state the link goes into.
+     * @param from the state one layer up that it comes from.
+     */
+    private void addLink(int id, int from) {
+        if (this.links == this.linkFrom.length) {
+            this.linkFrom = Arrays.copyOf(this.linkFrom, this.links << 1);
+            this.nextLinks = Arrays.copyOf(this.nextLinks, this.links << 1);
+        }
+        this.linkFrom[this.links] = from;
+        this.nextLinks[this.links] = this.firstLinks[id];
+        this.firstLinks[id] = this.links++;
+    }
+
+    /**
+     * Remembers a solution at the shortest depth.
+     *
+     * @param id the ID of the solution.
+     */
+    private void addGoal(int id) {
+        if (this.goalCount == this.goals.length) {
+            this.goals = Arrays.copyOf(this.goals, this.goalCount << 1);
+        }
+        this.goals[this.goalCount++] = id;
+    }
+
+    /**
+     * Returns the number of distinct shortest solutions: shortest paths from the start to any
+     * solution. Counted with longs while solving, and again with BigIntegers if that overflowed.
+     *
+     * @return the number of shortest solutions, or 0 if there are none.
+     */
+    public BigInteger getSolutionCount() {
+        if (this.overflowed) {
+            return countExactly();
+        }
+        long count = 0;
+        for (int i = 0; i < this.goalCount; i++) {
+            count += this.pathCounts[this.goals[i]];
+            if (count < 0) {
+                return countExactly();
+            }
+        }
+        return BigInteger.valueOf(count);
+    }
+
+    /**
+     * Redoes the path counts with BigIntegers, layer by layer in ID order, stopping at the solutions' layer.
+     *
+     * @return the number of shortest solutions.
+     */
+    private BigInteger countExactly() {
+        int end = this.table.size();
+        BigInteger[] counts = new BigInteger[end];
+        counts[0] = BigInteger.ONE;
+        for (int id = 1; id < end; id++) {
+            BigInteger count = BigInteger.ZERO;
+            for (int link = this.firstLinks[id]; link != NO_LINK; link = this.nextLinks[link]) {
+                count = count.add(counts[this.linkFrom[link]]);
+            }
+            counts[id] = count;
+        }
+        BigInteger total = BigInteger.ZERO;
+        for (int i = 0; i < this.goalCount; i++) {
+            total = total.add(counts[this.goals[i]]);
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of distinct solution configurations at the shortest solution depth.
+     *
+     * @return the number of shortest-depth solutions.
+     */
+    public int getGoalCount() {
+        return this.goalCount;
+    }
+
+    /**
+     * Returns the number of moves in a shortest solution.
+     *
+     * @return the solution length, or -1 if there is no solution.
+     */
+    public int getSolutionLength() {
+        return this.solutionLength;
+    }
+
+    /**
+     * Walks every shortest solution, one path at a time. Nothing is built up front: the iterator
+     * follows predecessor links back from each solution depth first, holding only the path it is on.
+     *
+     * @return an iterator over the shortest paths, each from the start to a solution.
+     */
+    public Iterator<LinkedList<Configuration>> pathIterator() {
+        return new PathIterator();
+    }
+
+    /**
+     * Returns the shortest solutions for use in a for-each loop. Each loop walks them afresh.
+     *
+     * @return the shortest paths.
+     */
+    public Iterable<LinkedList<Configuration>> getPaths() {
+        return this::pathIterator;
+    }
+
+    /**
+     * Returns the first shortest path, the one pathIterator() gives first.
+     *
+     * @return the path to a solution if one exists, else returns null.
+     */
+    public LinkedList<Configuration> getPath() {
+        Iterator<LinkedList<Configuration>> paths = pathIterator();
+        return paths.hasNext() ? paths.next() : null;
+    }
+
+    /**
+     * Returns the total number of configurations generated during the solve.
+     *
+     * @return the total number of configurations seen.
+     */
+    public long getTotalConfigs() {
+        return this.totalConfigs;
+    }
+
+    /**
+     * Returns the number of unique configurations seen during the solve.
+     *
+     * @return the number of unique configurations seen.
+     */
+    public int getUniqueConfigs() {
+        return this.table.size();
+    }
+
+    /**
+     * Returns how the last solve ended.
+     *
+     * @return the result, or null if solve() has not been called yet.
+     */
+    public SolveResult getResult() {
+        return this.result;
+    }
+
+    /**
+     * Depth-first walk back through the predecessor links. Level k of the current path holds a state
+     * at depth k and the link it was left by towards depth k - 1, so moving to the next path is just
+     * advancing the deepest link that has one left.
+     */
+    private class PathIterator implements Iterator<LinkedList<Configuration>> {
+        // State at each level of the current path
+        private final int[] ids = new int[solutionLength + 1];
+
+        // Link being followed from each level to the one before it
+        private final int[] cursors = new int[solutionLength + 1];
+
+        // Index of the solution the current paths end at
+        private int goal = -1;
+
+        // Level being filled in
+        private int level;
+
+        // Whether the current path has been handed out, so the next call must move past it
+        private boolean used = true;
+
+        // Whether every path has been handed out
+        private boolean done = goalCount == 0;
+
+        /**
+         * Finds the next complete path, if there is one, leaving it in ids.
+         *
+         * @return true if there is a path, false if every path has been handed out.
+         */
+        @Override
+        public boolean hasNext() {
+            if (this.done || !this.used) {
+                return !this.done;
+            }
+            if (this.goal < 0) {
+                nextGoal();
+            }
+            else {
+                backtrack();
+            }
+            while (!this.done && this.level > 0) {
+                int link = this.cursors[this.level];
+                if (link == NO_LINK) {
+                    backtrack();
+                }
+                else {
+                    this.level--;
+                    this.ids[this.level] = linkFrom[link];
+                    this.cursors[this.level] = firstLinks[this.ids[this.level]];
+                }
+            }
+            this.used = this.done;
+            return !this.done;
+        }
+
+        /**
+         * Returns the next path.
+         *
+         * @return the configurations from the start to a solution.
+         */
+        @Override
+        public LinkedList<Configuration> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            this.used = true;
+            LinkedList<Configuration> path = new LinkedList<>();
+            for (int id : this.ids) {
+                path.add(table.get(id));
+            }
+            return path;
+        }
+
+        /** Leaves the current level and moves on to the next link one level up */
+        private void backtrack() {
+            this.level++;
+            if (this.level > solutionLength) {
+                nextGoal();
+            }
+            else {
+                this.cursors[this.level] = nextLinks[this.cursors[this.level]];
+            }
+        }
+
+        /** Starts on the paths into the next solution, or finishes if there are no more */
+        private void nextGoal() {
+            this.goal++;
+            if (this.goal == goalCount) {
+                this.done = true;
+                return;
+            }
+            this.level = solutionLength;
+            this.ids[this.level] = goals[this.goal];
+            this.cursors[this.level] = firstLinks[this.ids[this.level]];
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package puzzles.common.solver;
+
+/**
+ * Limits on how much work a solve may do before it gives up: a wall-clock time limit,
+ * a number of expanded configurations, and an amount of memory in use (the heap, plus the
+ * off-heap table of a packed solve). Immutable; each with method returns a copy with one limit changed.
+ */
+public class SolveLimits {
+
+    /** Constant */
+    // No limits at all
+    public static final SolveLimits NONE = new SolveLimits(Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE);
+
+    /** Fields */
+    // Longest the solve may run, in milliseconds
+    private final long timeLimitMillis;
+
+    // Most configurations the solve may expand
+    private final long maxExpanded;
+
+    // Most memory the solve may have in use, heap and off-heap, in bytes
+    private final long maxMemoryBytes;
+
+
+    /**
+     * Constructor with every limit.
+     *
+     * @param timeLimitMillis longest the solve may run, in milliseconds.
+     * @param maxExpanded most configurations the solve may expand.
+     * @param maxMemoryBytes most memory the solve may have in use, heap and off-heap, in bytes.
+     */
+    public SolveLimits(long timeLimitMillis, long maxExpanded, long maxMemoryBytes) {
+        this.timeLimitMillis = timeLimitMillis;
+        this.maxExpanded = maxExpanded;
+        this.maxMemoryBytes = maxMemoryBytes;
+    }
+
+    /**
+     * Returns these limits with a time limit.
+     *
+     * @param millis longest the solve may run, in milliseconds.
+     * @return the new limits.
+     */
+    public SolveLimits withTimeLimit(long millis) {
+        return new SolveLimits(millis, this.maxExpanded, this.maxMemoryBytes);
+    }
+
+    /**
+     * Returns these limits with a limit on expanded configurations.
+     *
+     * @param count most configurations the solve may expand.
+     * @return the new limits.
+     */
+    public SolveLimits withMaxExpanded(long count) {
+        return new SolveLimits(this.timeLimitMillis, count, this.maxMemoryBytes);
+    }
+
+    /**
+     * Returns these limits with a limit on memory in use.
+     *
+     * @param bytes most memory the solve may have in use, heap and off-heap, in bytes.
+     * @return the new limits.
+     */
+    public SolveLimits withMaxMemory(long bytes) {
+        return new SolveLimits(this.timeLimitMillis, this.maxExpanded, bytes);
+    }
+
+    /** Accessor for the time limit in milliseconds */
+    public long getTimeLimitMillis() {
+        return this.timeLimitMillis;
+    }
+
+    /** Accessor for the limit on expanded configurations */
+    public long getMaxExpanded() {
+        return this.maxExpanded;
+    }
+
+    /** Accessor for the limit on memory in use, in bytes */
+    public long getMaxMemoryBytes() {
+        return this.maxMemoryBytes;
+    }
+}
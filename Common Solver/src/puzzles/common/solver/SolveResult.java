@@ -0,0 +1,34 @@
+package puzzles.common.solver;
+
+/**
+ * How a solve ended. SOLVED and UNSOLVABLE are final answers; every other result means the solve
+ * was aborted before it could tell, and the solver's counters describe the work done up to that point.
+ */
+public enum SolveResult {
+    /** A path to a solution was found */
+    SOLVED,
+
+    /** The whole reachable space was searched and there is no solution */
+    UNSOLVABLE,
+
+    /** The cancellation token was set */
+    CANCELLED,
+
+    /** The time limit ran out */
+    TIMED_OUT,
+
+    /** The limit on expanded configurations was reached */
+    EXPANSION_LIMIT,
+
+    /** The limit on memory in use was reached, or a table the solver needs could not grow any further */
+    MEMORY_LIMIT;
+
+    /**
+     * Was the solve stopped before it could find a solution or prove there is none?
+     *
+     * @return true for every result except SOLVED and UNSOLVABLE.
+     */
+    public boolean isAborted() {
+        return this != SOLVED && this != UNSOLVABLE;
+    }
+}
@@ -0,0 +1,168 @@
+package puzzles.common.solver;
+
+/**
+ * A snapshot of a solver's counters. All counts are longs so they do not overflow on large runs.
+ */
+public class SolveStats {
+
+    /** Fields */
+    // Depth of the frontier
+    private final int depth;
+
+    // Number of configurations waiting to be expanded
+    private final long frontierSize;
+
+    // Number of configurations generated, counting the start
+    private final long totalConfigs;
+
+    // Number of distinct configurations seen
+    private final long uniqueConfigs;
+
+    // Number of configurations expanded
+    private final long expandedConfigs;
+
+    // Time spent solving so far, in nanoseconds
+    private final long elapsedNanos;
+
+    // Estimated bytes of memory per distinct configuration
+    private final long bytesPerState;
+
+    // Number of expansions the early goal test saved
+    private final long skippedExpansions;
+
+    // Estimated number of configurations the early goal test saved from being generated
+    private final long skippedConfigsEstimate;
+
+
+    /**
+     * Constructor for a search that does not stop early on a goal.
+     *
+     * @param depth depth of the frontier.
+     * @param frontierSize number of configurations waiting to be expanded.
+     * @param totalConfigs number of configurations generated, counting the start.
+     * @param uniqueConfigs number of distinct configurations seen.
+     * @param expandedConfigs number of configurations expanded.
+     * @param elapsedNanos time spent solving so far, in nanoseconds.
+     * @param bytesPerState estimated bytes of memory per distinct configuration.
+     */
+    public SolveStats(int depth, long frontierSize, long totalConfigs, long uniqueConfigs,
+                      long expandedConfigs, long elapsedNanos, long bytesPerState) {
+        this(depth, frontierSize, totalConfigs, uniqueConfigs, expandedConfigs, elapsedNanos, bytesPerState, 0, 0);
+    }
+
+    /**
+     * Constructor with every counter.
+     *
+     * @param depth depth of the frontier.
+     * @param frontierSize number of configurations waiting to be expanded.
+     * @param totalConfigs number of configurations generated, counting the start.
+     * @param uniqueConfigs number of distinct configurations seen.
+     * @param expandedConfigs number of configurations expanded.
+     * @param elapsedNanos time spent solving so far, in nanoseconds.
+     * @param bytesPerState estimated bytes of memory per distinct configuration.
+     * @param skippedExpansions number of expansions the early goal test saved.
+     * @param skippedConfigsEstimate estimated number of configurations the early goal test saved from being generated.
+     */
+    public SolveStats(int depth, long frontierSize, long totalConfigs, long uniqueConfigs,
+                      long expandedConfigs, long elapsedNanos, long bytesPerState,
+                      long skippedExpansions, long skippedConfigsEstimate) {
+        this.depth = depth;
+        this.frontierSize = frontierSize;
+        this.totalConfigs = totalConfigs;
+        this.uniqueConfigs = uniqueConfigs;
+        this.expandedConfigs = expandedConfigs;
+        this.elapsedNanos = elapsedNanos;
+        this.bytesPerState = bytesPerState;
+        this.skippedExpansions = skippedExpansions;
+        this.skippedConfigsEstimate = skippedConfigsEstimate;
+    }
+
+    /** Accessor for the depth of the frontier */
+    public int getDepth() {
+        return this.depth;
+    }
+
+    /** Accessor for the number of configurations waiting to be expanded */
+    public long getFrontierSize() {
+        return this.frontierSize;
+    }
+
+    /** Accessor for the number of configurations generated, counting the start */
+    public long getTotalConfigs() {
+        return this.totalConfigs;
+    }
+
+    /** Accessor for the number of distinct configurations seen */
+    public long getUniqueConfigs() {
+        return this.uniqueConfigs;
+    }
+
+    /** Accessor for the number of configurations expanded */
+    public long getExpandedConfigs() {
+        return this.expandedConfigs;
+    }
+
+    /** Accessor for the time spent solving so far, in nanoseconds */
+    public long getElapsedNanos() {
+        return this.elapsedNanos;
+    }
+
+    /** Accessor for the estimated bytes of memory per distinct configuration */
+    public long getBytesPerState() {
+        return this.bytesPerState;
+    }
+
+    /** Accessor for the number of expansions the early goal test saved (0 without it) */
+    public long getSkippedExpansions() {
+        return this.skippedExpansions;
+    }
+
+    /** Accessor for the estimated number of configurations the early goal test saved from being generated */
+    public long getSkippedConfigsEstimate() {
+        return this.skippedConfigsEstimate;
+    }
+
+    /**
+     * Returns the number of generated neighbors that had already been seen.
+     *
+     * @return the number of duplicate hits.
+     */
+    public long getDuplicateHits() {
+        return this.totalConfigs - this.uniqueConfigs;
+    }
+
+    /**
+     * Returns the fraction of generated neighbors that had already been seen.
+     *
+     * @return the duplicate hit rate, from 0 to 1.
+     */
+    public double getDuplicateRate() {
+        long generated = this.totalConfigs - 1;
+        return generated <= 0 ? 0 : (double) getDuplicateHits() / generated;
+    }
+
+    /**
+     * Returns the average number of configurations expanded per second so far.
+     *
+     * @return the expansion rate.
+     */
+    public double getExpansionsPerSecond() {
+        return this.elapsedNanos <= 0 ? 0 : this.expandedConfigs * 1e9 / this.elapsedNanos;
+    }
+
+    /**
+     * Returns a one-line summary of the counters, with the early goal test's savings if it saved anything.
+     *
+     * @return the summary.
+     */
+    @Override
+    public String toString() {
+        String summary = String.format("depth %d: frontier %d, unique %d, total %d, duplicates %.1f%%, %.0f expansions/s, ~%d bytes/state",
+                this.depth, this.frontierSize, this.uniqueConfigs, this.totalConfigs,
+                getDuplicateRate() * 100, getExpansionsPerSecond(), this.bytesPerState);
+        if (this.skippedExpansions > 0) {
+            summary += String.format(", skipped %d expansions (~%d configs)", this.skippedExpansions, this.skippedConfigsEstimate);
+        }
+        return summary;
+    }
+}
@@ -0,0 +1,745 @@
+package puzzles.common.solver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedList;
+
+/**
+ * BFS Solver that works with the Configuration interface.
+ *
+ * @author Ryan O'Malley
+ * @github cro5058
+ */
+public class Solver implements PathSolver {
+
+    /** Constants */
+    // First int of every checkpoint file ("PZCK")
+    private static final int CHECKPOINT_MAGIC = 0x505A434B;
+
+    // Expansions between reads of the clock to see whether a checkpoint is due (a power of two)
+    private static final int CHECKPOINT_CHECK_INTERVAL = 1 << 10;
+
+    /** Fields */
+    // Starting configuration
+    private Configuration start;
+
+    // ID of the goal configuration, or -1 if none has been found
+    private int goalId;
+
+    // Queue of IDs of configurations to visit (kept between solves, so it keeps its capacity)
+    private final IntQueue queue;
+
+    // Every configuration seen, with the ID of its predecessor (and its visit count if counted),
+    // so each neighbor takes a single probe
+    private ConfigurationTable table;
+
+    // Number of configurations generated
+    private long totalConfigs;
+
+    // Whether neighbors are tested for a solution as soon as they are generated
+    private final boolean earlyGoalTest;
+
+    // Number of configurations whose neighbors were generated
+    private long expandedConfigs;
+
+    // Number of configurations still queued when an early goal test stopped the search
+    private long skippedExpansions;
+
+    // Told about progress at each depth, or null for none
+    private SearchListener listener;
+
+    // Depth of the configurations being expanded
+    private int depth;
+
+    // Configurations at the current depth not yet expanded
+    private long layerRemaining;
+
+    // Configurations queued so far for the next depth
+    private long nextLayerSize;
+
+    // System.nanoTime() when the current solve started
+    private long startNanos;
+
+    // Packs configurations into longs, or null to always store Configuration objects
+    private final LongStateCodec codec;
+
+    // Whether the last solve stored packed states instead of Configuration objects
+    private boolean packed;
+
+    // Visited packed states and their parents, kept off the heap (packed solves only)
+    private OffHeapStateTable stateTable;
+
+    // Queue of packed states to visit (packed solves only)
+    private LongQueue stateQueue;
+
+    // Packed goal state, or -1 if none has been found (packed solves only)
+    private long goalState;
+
+    // Checks the limits of the current solve
+    private LimitChecker limitChecker;
+
+    // How the last solve ended, or null if solve() has not been called yet
+    private SolveResult result;
+
+    // File the search is saved to every so often, or null for no checkpoints (packed solves only)
+    private Path checkpointFile;
+
+    // Nanoseconds between checkpoints
+    private long checkpointInterval;
+
+    // System.nanoTime() when the next checkpoint is due
+    private long nextCheckpoint;
+
+    // Path to the solution, if it exists
+    private LinkedList<Configuration> path;
+
+
+    /** Constructor */
+    public Solver() {
+        this(false);
+    }
+
+    /**
+     * Constructor that can test each neighbor for a solution as it is generated.
+     * The path found is still a shortest one, but the search stops without
+     * expanding the rest of the layer the goal was found in.
+     *
+     * @param earlyGoalTest true to test neighbors when generated, false to test them when dequeued.
+     */
+    public Solver(boolean earlyGoalTest) {
+        this(null, earlyGoalTest);
+    }
+
+    /**
+     * Constructor that stores visited states as packed longs in an off-heap table whenever
+     * the codec says every state reachable from the start fits, and as Configuration objects otherwise.
+     *
+     * @param codec packs configurations into longs.
+     */
+    public Solver(LongStateCodec codec) {
+        this(codec, false);
+    }
+
+    /**
+     * Constructor with both a codec and the early goal test option.
+     *
+     * @param codec packs configurations into longs, or null to always store Configuration objects.
+     * @param earlyGoalTest true to test neighbors when generated, false to test them when dequeued.
+     */
+    public Solver(LongStateCodec codec, boolean earlyGoalTest) {
+        // Do not initialize the start or goal configurations yet
+        this.codec = codec;
+        this.earlyGoalTest = earlyGoalTest;
+        this.packed = false;
+        this.goalId = -1;
+        this.goalState = -1;
+
+        // Initialize queue to empty queue
+        this.queue = new IntQueue();
+
+        // Initialize the table of seen configurations as empty, without visit counts
+        this.table = new ConfigurationTable(false);
+
+        // No configurations seen or expanded yet
+        this.totalConfigs = 0;
+        this.expandedConfigs = 0;
+        this.skippedExpansions = 0;
+
+        // No path to a solution exists yet
+        this.path = null;
+    }
+
+    /**
+     * Forgets the last solve so the solver can be used again. The queue and visited tables are
+     * emptied rather than replaced, so they keep the capacity they grew to and the next solve
+     * does not have to allocate and rehash them from scratch. solve() calls this itself.
+     */
+    public void reset() {
+        // Drop the configurations of the last solve but keep the room they took up
+        this.queue.clear();
+        this.table.clear();
+        if (this.stateTable != null) {
+            this.stateTable.clear();
+        }
+        if (this.stateQueue != null) {
+            this.stateQueue.clear();
+        }
+
+        // Nothing has been seen, found or decided yet
+        this.start = null;
+        this.goalId = -1;
+        this.goalState = -1;
+        this.packed = false;
+        this.totalConfigs = 0;
+        this.expandedConfigs = 0;
+        this.skippedExpansions = 0;
+        this.limitChecker = null;
+        this.result = null;
+        this.path = null;
+    }
+
+    /**
+     * Performs BFS. Starts from the input start Configuration and searches for a solution Configuration.
+     * Also calls buildPath to build the shortest path from start to finish if such a path is possible.
+     *
+     * @param start the starting Configuration to solve from.
+     */
+    public void solve(Configuration start) {
+        solve(start, SolveLimits.NONE, null);
+    }
+
+    /**
+     * Performs BFS within some limits.
+     *
+     * @param start the starting Configuration to solve from.
+     * @param limits when to give up.
+     * @return how the solve ended.
+     */
+    public SolveResult solve(Configuration start, SolveLimits limits) {
+        return solve(start, limits, null);
+    }
+
+    /**
+     * Performs BFS within some limits, stopping early if the token is cancelled.
+     * If the solve is aborted there is no path, but the counters still describe the work done.
+     *
+     * @param start the starting Configuration to solve from.
+     * @param limits when to give up.
+     * @param token lets another thread stop the solve, or null for none.
+     * @return how the solve ended.
+     */
+    public SolveResult solve(Configuration start, SolveLimits limits, CancellationToken token) {
+        // Start over from the last solve, reusing its queue and tables
+        reset();
+
+        // Set the start Configuration as the input Configuration
+        this.start = start;
+        this.limitChecker = new LimitChecker(limits, token);
+        this.startNanos = System.nanoTime();
+        this.depth = 0;
+        this.layerRemaining = 1;
+        this.nextLayerSize = 0;
+
+        // If every reachable state packs into a long, search on packed states instead
+        this.packed = this.codec != null && this.codec.fits(start);
+        if (this.packed) {
+            solvePacked();
+            return finish();
+        }
+        if (this.checkpointFile != null) {
+            throw new IllegalStateException("Checkpoints need a codec that fits the start configuration");
+        }
+
+        // Add the start configuration to the table (it is its own root) and enqueue its ID
+        int startId = this.table.add(this.start, ConfigurationTable.NO_PARENT);
+        this.queue.add(startId);
+
+        // Indicate that we have seen 1 configuration: the start configuration
+        this.totalConfigs++;
+
+        // With an early goal test, a solved start is never dequeued as a neighbor, so check it here
+        if (this.earlyGoalTest && this.start.isSolution()) {
+            this.goalId = startId;
+            this.queue.clear();
+        }
+
+        // While the queue is not empty...
+        while (!this.queue.isEmpty()) {
+            // Get the first ID in the queue and its configuration
+            int currentId = this.queue.poll();
+            Configuration current = this.table.get(currentId);
+
+            // See if it is the goal. If so...
+            if (current.isSolution()) {
+                // Save it as the goal configuration (for path building later)
+                this.goalId = currentId;
+
+                // Stop doing BFS
+                break;
+            }
+
+            // Give up if a limit was reached or the solve was cancelled
+            if ((this.result = this.limitChecker.check(this.expandedConfigs)) != null) {
+                break;
+            }
+
+            // Otherwise, visit each of its neighbors as it is generated
+            this.expandedConfigs++;
+            current.forEachNeighbor(neighbor -> visit(currentId, neighbor));
+
+            // Everything queued ahead of the goal would have been expanded by a dequeue-time test
+            if (this.goalId >= 0) {
+                this.skippedExpansions = this.queue.size() - 1;
+                break;
+            }
+
+            // See if that finished a depth
+            endExpansion();
+        }
+
+        // Build the path from the start to the goal
+        buildPath();
+        return finish();
+    }
+
+    /**
+     * Continues a packed solve from a checkpoint file written by an earlier solve.
+     *
+     * @param file the checkpoint file.
+     * @return how the solve ended.
+     * @throws IOException if the file cannot be read or is not a checkpoint.
+     */
+    public SolveResult resume(Path file) throws IOException {
+        return resume(file, SolveLimits.NONE, null);
+    }
+
+    /**
+     * Continues a packed solve from a checkpoint file written by an earlier solve, within some limits.
+     * The solver must have the same codec as the one that wrote the file. The counters carry on from
+     * the checkpoint, so an expansion limit counts the expansions before it too, while a time limit
+     * and the elapsed time in the stats start over. Checkpoints keep being written if they are set.
+     *
+     * @param file the checkpoint file.
+     * @param limits when to give up.
+     * @param token lets another thread stop the solve, or null for none.
+     * @return how the solve ended.
+     * @throws IOException if the file cannot be read or is not a checkpoint.
+     */
+    public SolveResult resume(Path file, SolveLimits limits, CancellationToken token) throws IOException {
+        if (this.codec == null) {
+            throw new IllegalStateException("Resuming needs the codec the checkpoint was written with");
+        }
+
+        // Start over from the last solve, then load the saved search in its place
+        reset();
+        allocatePacked();
+        long startState;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != CHECKPOINT_MAGIC) {
+                throw new IOException("Not a solver checkpoint: " + file);
+            }
+            startState = in.readLong();
+            this.totalConfigs = in.readLong();
+            this.expandedConfigs = in.readLong();
+            this.depth = in.readInt();
+            this.layerRemaining = in.readLong();
+            this.nextLayerSize = in.readLong();
+            this.stateQueue.read(in);
+            this.stateTable.read(in);
+        }
+
+        this.start = this.codec.decode(startState);
+        this.packed = true;
+        this.limitChecker = new LimitChecker(limits, token);
+        this.startNanos = System.nanoTime();
+        searchPacked(startState);
+        return finish();
+    }
+
+    /**
+     * Counts off one expansion at the current depth. When the depth is used up, moves on to the
+     * next one and tells the listener, so the listener is called once per depth rather than per state.
+     */
+    private void endExpansion() {
+        if (--this.layerRemaining > 0) {
+            return;
+        }
+        this.depth++;
+        this.layerRemaining = this.nextLayerSize;
+        this.nextLayerSize = 0;
+        if (this.listener != null) {
+            this.listener.depthCompleted(getStats());
+        }
+    }
+
+    /**
+     * Settles how the solve ended: aborted if a limit stopped it, otherwise solved or unsolvable
+     * depending on whether a path was found.
+     *
+     * @return how the solve ended.
+     */
+    private SolveResult finish() {
+        if (this.result == null) {
+            this.result = this.path != null ? SolveResult.SOLVED : SolveResult.UNSOLVABLE;
+        }
+        else {
+            this.path = null;
+        }
+        return this.result;
+    }
+
+    /**
+     * Performs BFS on packed states. Visited states and their parents live in an off-heap table
+     * and the queue holds longs, so the only Configuration objects are the ones being expanded.
+     * Counts and the path found are the same as the object search.
+     */
+    private void solvePacked() {
+        // The start is its own parent, marking the root of the path
+        long startState = this.codec.encode(this.start);
+        allocatePacked();
+        this.stateTable.putIfAbsent(startState, startState);
+        this.stateQueue.add(startState);
+        this.totalConfigs++;
+
+        // With an early goal test, a solved start is never dequeued as a neighbor, so check it here
+        if (this.earlyGoalTest && this.start.isSolution()) {
+            this.goalState = startState;
+            this.stateQueue.clear();
+        }
+
+        searchPacked(startState);
+    }
+
+    /**
+     * Makes the off-heap table and the queue of packed states the first time they are needed.
+     */
+    private void allocatePacked() {
+        if (this.stateTable == null) {
+            this.stateTable = new OffHeapStateTable();
+            this.stateQueue = new LongQueue();
+        }
+    }
+
+    /**
+     * Runs the packed BFS from whatever is in the queue and the table, saving a checkpoint
+     * every so often if one was asked for, then builds the path.
+     *
+     * @param startState the packed start state.
+     */
+    private void searchPacked(long startState) {
+        this.nextCheckpoint = System.nanoTime() + this.checkpointInterval;
+        while (!this.stateQueue.isEmpty()) {
+            // Between expansions the queue, table and counters agree, so the search can be saved here
+            if (this.checkpointFile != null && (this.expandedConfigs & (CHECKPOINT_CHECK_INTERVAL - 1)) == 0
+                    && System.nanoTime() - this.nextCheckpoint >= 0) {
+                writeCheckpoint(startState);
+            }
+
+            long currentState = this.stateQueue.poll();
+            Configuration current = this.codec.decode(currentState);
+
+            if (current.isSolution()) {
+                this.goalState = currentState;
+                break;
+            }
+
+            if ((this.result = this.limitChecker.check(this.expandedConfigs, this.stateTable.bytes())) != null) {
+                break;
+            }
+
+            // The table can't grow any further, which ends the solve like running out of memory
+            if (this.stateTable.isFull()) {
+                this.result = SolveResult.MEMORY_LIMIT;
+                break;
+            }
+
+            this.expandedConfigs++;
+            current.forEachNeighbor(neighbor -> visitPacked(currentState, neighbor));
+
+            // Everything queued ahead of the goal would have been expanded by a dequeue-time test
+            if (this.goalState >= 0) {
+                this.skippedExpansions = this.stateQueue.size() - 1;
+                break;
+            }
+
+            endExpansion();
+        }
+
+        buildPackedPath(startState);
+    }
+
+    /**
+     * Saves the packed search to the checkpoint file: the start, the counters, the queue and the
+     * table of visited states with their parents. The file is written beside the old one and then
+     * moved over it, so a crash while writing leaves the previous checkpoint whole.
+     *
+     * @param startState the packed start state.
+     */
+    private void writeCheckpoint(long startState) {
+        Path temp = this.checkpointFile.resolveSibling(this.checkpointFile.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(CHECKPOINT_MAGIC);
+                out.writeLong(startState);
+                out.writeLong(this.totalConfigs);
+                out.writeLong(this.expandedConfigs);
+                out.writeInt(this.depth);
+                out.writeLong(this.layerRemaining);
+                out.writeLong(this.nextLayerSize);
+                this.stateQueue.write(out);
+                this.stateTable.write(out);
+            }
+            Files.move(temp, this.checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Could not write checkpoint " + this.checkpointFile, e);
+        }
+        this.nextCheckpoint = System.nanoTime() + this.checkpointInterval;
+    }
+
+    /**
+     * Records one neighbor of the packed state being expanded, queueing it if it is new.
+     *
+     * @param currentState the packed state being expanded.
+     * @param neighbor one of its neighbors.
+     */
+    private void visitPacked(long currentState, Configuration neighbor) {
+        // Skip the rest of the neighbors once the goal is found
+        if (this.goalState >= 0) {
+            return;
+        }
+
+        long state = this.codec.encode(neighbor);
+        if (this.stateTable.putIfAbsent(state, currentState)) {
+            this.stateQueue.add(state);
+            this.nextLayerSize++;
+            if (this.earlyGoalTest && neighbor.isSolution()) {
+                this.goalState = state;
+            }
+        }
+        this.totalConfigs++;
+    }
+
+    /**
+     * Builds the shortest path by following packed parents back from the goal state.
+     * Sets the path field to null if no goal was found.
+     *
+     * @param startState the packed start state.
+     */
+    private void buildPackedPath(long startState) {
+        LinkedList<Configuration> path = null;
+        if (this.goalState >= 0) {
+            path = new LinkedList<>();
+            for (long state = this.goalState; state != startState; state = this.stateTable.getParent(state)) {
+                path.addFirst(this.codec.decode(state));
+            }
+            path.addFirst(this.start);
+        }
+        this.path = path;
+    }
+
+    /**
+     * Records one neighbor of the configuration being expanded: queues it if it is new
+     * and counts it towards the total configurations. Adding it to the table is the only lookup,
+     * since the table says whether it was new. Once a goal has been found
+     * by the early goal test, the remaining neighbors are ignored.
+     *
+     * @param currentId the ID of the configuration being expanded.
+     * @param neighbor one of its neighbors.
+     */
+    private void visit(int currentId, Configuration neighbor) {
+        // Skip the rest of the neighbors once the goal is found
+        if (this.goalId >= 0) {
+            return;
+        }
+
+        // A non-negative ID means the neighbor was not seen before...
+        int id = this.table.add(neighbor, currentId);
+        if (id >= 0) {
+            // Add it to the queue of configurations to check
+            this.queue.add(id);
+            this.nextLayerSize++;
+
+            // A new neighbor that is already solved is one move past current, which is as
+            // short as any path through the rest of the queue, so stop here
+            if (this.earlyGoalTest && neighbor.isSolution()) {
+                this.goalId = id;
+            }
+        }
+
+        // Increment the number of configurations generated
+        this.totalConfigs++;
+    }
+
+    /**
+     * Builds the shortest path between the start configuration and the solution configuration.
+     * If a valid path exists, this method sets the path field equal to that path.
+     * Otherwise, it sets the path field equal to null.
+     */
+    private void buildPath() {
+        // Path is null until we know there was a solution
+        LinkedList<Configuration> path = null;
+
+        // If we were able to reach the goal configuration...
+        if (this.goalId >= 0) {
+            // There is actually a path, initialize a new LinkedList
+            path = new LinkedList<>();
+
+            // Follow the predecessor IDs back from the goal until we pass the start
+            for (int id = this.goalId; id != ConfigurationTable.NO_PARENT; id = this.table.getParent(id)) {
+                path.addFirst(this.table.get(id));
+            }
+        }
+
+        // Set the path to the solution equal to the derived path
+        this.path = path;
+    }
+
+    /**
+     * Returns the total number of configurations seen
+     * throughout the course of solving via BFS.
+     *
+     * @return the total number of configurations seen
+     * in the course of generating the solution.
+     */
+    public long getTotalConfigs() {
+        return this.totalConfigs;
+    }
+
+    /**
+     * Returns the number of configurations whose neighbors were generated
+     * throughout the course of solving via BFS.
+     *
+     * @return the number of configurations expanded.
+     */
+    public long getExpandedConfigs() {
+        return this.expandedConfigs;
+    }
+
+    /**
+     * Returns how many expansions the early goal test saved: the configurations still
+     * queued ahead of the goal when it was found, which a dequeue-time test would have expanded.
+     * Always 0 without the early goal test.
+     *
+     * @return the number of expansions skipped.
+     */
+    public long getSkippedExpansions() {
+        return this.skippedExpansions;
+    }
+
+    /**
+     * Estimates how many configurations the early goal test saved from being generated
+     * (and allocated), from the average number of neighbors per expansion.
+     *
+     * @return the estimated number of configurations not generated.
+     */
+    public long getSkippedConfigsEstimate() {
+        if (this.expandedConfigs == 0) {
+            return 0;
+        }
+        return this.skippedExpansions * (this.totalConfigs - 1) / this.expandedConfigs;
+    }
+
+    /**
+     * Returns the number of unique configurations seen
+     * throughout the course of solving via BFS, which is equivalent to
+     * the number of configurations in the table,
+     * or the number of states in the off-heap table for a packed solve.
+     *
+     * @return the number of unique configurations seen
+     * in the course of generating the solution.
+     */
+    public long getUniqueConfigs() {
+        return this.packed ? this.stateTable.size() : this.table.size();
+    }
+
+    /**
+     * Turns counting how many times each configuration is generated on or off. Counting is
+     * instrumentation for getVisitCount and is off by default, so normal solves skip it.
+     * It only applies to solves that store Configuration objects, not packed ones.
+     *
+     * @param countHits true to count visits, false to skip counting.
+     */
+    public void setCountingVisits(boolean countHits) {
+        if (countHits != this.table.isCountingHits()) {
+            this.table = new ConfigurationTable(countHits);
+        }
+    }
+
+    /**
+     * Returns how many times a configuration was generated during the last solve.
+     *
+     * @param config the configuration to look up.
+     * @return the number of times it was seen, or 0 if it was never seen.
+     * @throws IllegalStateException if visits were not being counted.
+     */
+    public int getVisitCount(Configuration config) {
+        if (!this.table.isCountingHits()) {
+            throw new IllegalStateException("Visits are not being counted; call setCountingVisits(true) first");
+        }
+        int id = this.table.find(config);
+        return id < 0 ? 0 : this.table.getHits(id);
+    }
+
+    /**
+     * Saves the search to a file every so often while solving, so that resume() can carry on
+     * after a crash or restart. Only packed solves can be saved, since the file holds packed states;
+     * solving a start the codec does not fit throws an IllegalStateException while this is set.
+     *
+     * @param file the file to save to, or null to stop saving.
+     * @param intervalMillis milliseconds between saves.
+     */
+    public void setCheckpoint(Path file, long intervalMillis) {
+        this.checkpointFile = file;
+        this.checkpointInterval = intervalMillis * 1_000_000;
+    }
+
+    /**
+     * Sets the listener told about progress at each depth.
+     *
+     * @param listener the listener, or null for none.
+     */
+    public void setSearchListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns a snapshot of the counters of the current or last solve. The memory estimate is
+     * the off-heap table for a packed solve, or the heap in use for an object solve, spread over
+     * the unique configurations.
+     *
+     * @return the counters.
+     */
+    public SolveStats getStats() {
+        long unique = getUniqueConfigs();
+        long frontier = this.packed ? this.stateQueue.size() : this.queue.size();
+        long bytes;
+        if (this.packed) {
+            bytes = this.stateTable.bytes();
+        }
+        else {
+            Runtime runtime = Runtime.getRuntime();
+            bytes = runtime.totalMemory() - runtime.freeMemory();
+        }
+        return new SolveStats(this.depth, frontier, this.totalConfigs, unique, this.expandedConfigs,
+                              System.nanoTime() - this.startNanos, unique == 0 ? 0 : bytes / unique,
+                              this.skippedExpansions, getSkippedConfigsEstimate());
+    }
+
+    /**
+     * Returns how the last solve ended.
+     *
+     * @return the result, or null if solve() has not been called yet.
+     */
+    public SolveResult getResult() {
+        return this.result;
+    }
+
+    /**
+     * Returns whether the last solve stored packed states off the heap
+     * instead of Configuration objects.
+     *
+     * @return true if the states were packed, false otherwise.
+     */
+    public boolean isPacked() {
+        return this.packed;
+    }
+
+    /**
+     * Method that returns the path from start configuration to end configuration as a LinkedList.
+     * Note that it is possible to get null as a result from this method if there is not a path
+     * from the start configuration to the end configuration or if solve() has not been called yet.
+     *
+     * @return the path to the solution if it exists, else returns null.
+     */
+    public LinkedList<Configuration> getPath() {
+        return this.path;
+    }
+}
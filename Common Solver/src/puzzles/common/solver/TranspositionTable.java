@@ -0,0 +1,109 @@
+package puzzles.common.solver;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-size cache of configurations already reached during a depth-first search, and how
+ * cheaply they were reached. Each configuration hashes to exactly one slot, and a new entry replaces
+ * whatever is in its slot unless that entry was reached more cheaply in the same search pass.
+ * Nothing is ever allocated after construction, so memory stays flat no matter how big the search gets.
+ *
+ * Losing an entry to replacement only costs re-expanding that configuration later; it never makes
+ * the search miss a solution.
+ */
+public class TranspositionTable {
+
+    /** Constant */
+    // Number of slots when none is given (about 260 thousand)
+    public static final int DEFAULT_SIZE = 1 << 18;
+
+    /** Fields */
+    // Configuration in each slot (null if the slot has never been used)
+    private final Configuration[] configurations;
+
+    // Cost (moves from the start) the configuration in each slot was reached at
+    private final int[] costs;
+
+    // Search pass each slot was written in; entries from older passes are treated as empty
+    private final int[] passes;
+
+    // Mask to turn a hash into a slot index
+    private final int mask;
+
+    // Number of lookups that let the search skip a configuration
+    private long hits;
+
+
+    /** Constructor */
+    public TranspositionTable() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Constructor with a number of slots.
+     *
+     * @param size the number of slots; rounded up to a power of two.
+     */
+    public TranspositionTable(int size) {
+        int slots = Integer.highestOneBit(Math.max(size, 2) - 1) << 1;
+        this.configurations = new Configuration[slots];
+        this.costs = new int[slots];
+        this.passes = new int[slots];
+        this.mask = slots - 1;
+        this.hits = 0;
+    }
+
+    /**
+     * Records that a configuration was reached at a cost during a search pass, and reports whether
+     * the search can skip it because the same pass already reached it at no greater cost.
+     *
+     * @param config the configuration reached.
+     * @param cost the number of moves from the start to it.
+     * @param pass the current search pass (must be positive).
+     * @return true if the configuration can be skipped, false if it needs expanding.
+     */
+    public boolean visit(Configuration config, int cost, int pass) {
+        int hash = config.hashCode() * 0x9E3779B9;
+        int slot = (hash ^ (hash >>> 16)) & this.mask;
+
+        Configuration stored = this.configurations[slot];
+        if (stored != null && this.passes[slot] == pass) {
+            if (stored.equals(config)) {
+                // Already reached at least as cheaply: nothing new below it
+                if (this.costs[slot] <= cost) {
+                    this.hits++;
+                    return true;
+                }
+            }
+            // A different configuration reached more cheaply is worth more, keep it
+            else if (this.costs[slot] <= cost) {
+                return false;
+            }
+        }
+
+        // Claim the slot
+        this.configurations[slot] = config;
+        this.costs[slot] = cost;
+        this.passes[slot] = pass;
+        return false;
+    }
+
+    /** Accessor for the number of slots */
+    public int capacity() {
+        return this.configurations.length;
+    }
+
+    /** Accessor for the number of lookups that let the search skip a configuration */
+    public long getHits() {
+        return this.hits;
+    }
+
+    /**
+     * Empties every slot.
+     */
+    public void clear() {
+        Arrays.fill(this.configurations, null);
+        Arrays.fill(this.passes, 0);
+        this.hits = 0;
+    }
+}